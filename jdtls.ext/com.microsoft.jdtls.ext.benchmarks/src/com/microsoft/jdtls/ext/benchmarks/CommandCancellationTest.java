@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.benchmarks;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.microsoft.jdtls.ext.core.JdtlsExtActivator;
+import com.microsoft.jdtls.ext.core.PackageCommand;
+import com.microsoft.jdtls.ext.core.ProjectCommand;
+import com.microsoft.jdtls.ext.core.model.NodeKind;
+
+/**
+ * Checks that the command pipelines stop soon after their monitor is cancelled.
+ *
+ * A pipeline is first run to count the cancellation checks it makes, then run
+ * again with a monitor cancelled at one of these checks, so that it is
+ * cancelled at a known point in the middle of its work, whatever the speed of
+ * the machine. The time from the cancellation to the return is bounded
+ * generously, since it only has to show that the remaining work is skipped.
+ * The pipelines are run on the calling thread, without the lanes of
+ * {@link com.microsoft.jdtls.ext.core.CommandHandler}, which return to the
+ * caller on the cancellation without waiting for the pipeline.
+ */
+public class CommandCancellationTest {
+
+    private static final long MAX_CANCELLATION_LATENCY_MS = 200;
+
+    // Number of the cancellation points tried in a pipeline
+    private static final int MAX_CANCELLATION_POINTS = 50;
+
+    @FunctionalInterface
+    private interface Pipeline {
+        void run(IProgressMonitor monitor) throws Exception;
+    }
+
+    /**
+     * A monitor cancelled at its n-th check.
+     */
+    private static final class CancelAtCheckMonitor extends NullProgressMonitor {
+        private final int cancelAt;
+        private int checks;
+        private long cancelledAt;
+
+        CancelAtCheckMonitor(int cancelAt) {
+            this.cancelAt = cancelAt;
+        }
+
+        @Override
+        public synchronized boolean isCanceled() {
+            checks++;
+            if (checks == cancelAt) {
+                cancelledAt = System.nanoTime();
+                setCanceled(true);
+            }
+            return super.isCanceled();
+        }
+
+        synchronized int getChecks() {
+            return checks;
+        }
+
+        synchronized long getCancelledAt() {
+            return cancelledAt;
+        }
+    }
+
+    @BeforeClass
+    public static void importFixtures() throws Exception {
+        DelegateCommandBenchmark.importFixtures();
+    }
+
+    @Test
+    public void cancelGetPackageData() throws Exception {
+        for (IJavaProject javaProject : ProjectUtils.getJavaProjects()) {
+            IProject project = javaProject.getProject();
+            if (DelegateCommandBenchmark.isDefaultProject(project)) {
+                continue;
+            }
+            String projectUri = ProjectUtils.getProjectRealFolder(project).toFile().toURI().toString();
+            Map<String, Object> projectParams = packageParams(NodeKind.PROJECT, projectUri);
+            assertCancelledPromptly("java.getPackageData:PROJECT " + project.getName(),
+                    monitor -> PackageCommand.getPackageData(Arrays.asList(projectParams), monitor));
+
+            for (IPackageFragmentRoot root : javaProject.getPackageFragmentRoots()) {
+                if (root.getKind() != IPackageFragmentRoot.K_SOURCE) {
+                    continue;
+                }
+                Map<String, Object> rootParams = packageParams(NodeKind.PACKAGEROOT, projectUri);
+                rootParams.put("path", root.getPath().toPortableString());
+                rootParams.put("handlerIdentifier", root.getHandleIdentifier());
+                assertCancelledPromptly("java.getPackageData:PACKAGEROOT " + project.getName() + "/" + root.getElementName(),
+                        monitor -> PackageCommand.getPackageData(Arrays.asList(rootParams), monitor));
+            }
+        }
+    }
+
+    @Test
+    public void cancelGetMainClasses() throws Exception {
+        for (String fixture : DelegateCommandBenchmark.FIXTURES) {
+            String workspaceUri = DelegateCommandBenchmark.workspaceFolder.resolve(fixture).toUri().toString();
+            assertCancelledPromptly("java.project.getMainClasses " + fixture,
+                    monitor -> ProjectCommand.getMainClasses(Arrays.asList(workspaceUri), monitor));
+        }
+    }
+
+    private static void assertCancelledPromptly(String scenario, Pipeline pipeline) throws Exception {
+        JdtlsExtActivator.clearCaches();
+        CancelAtCheckMonitor counter = new CancelAtCheckMonitor(0);
+        pipeline.run(counter);
+        int checks = counter.getChecks();
+        assertTrue(scenario + " should check the cancellation", checks > 0);
+
+        int step = Math.max(1, checks / MAX_CANCELLATION_POINTS);
+        for (int cancelAt = 1; cancelAt <= checks; cancelAt += step) {
+            JdtlsExtActivator.clearCaches();
+            CancelAtCheckMonitor monitor = new CancelAtCheckMonitor(cancelAt);
+            try {
+                pipeline.run(monitor);
+            } catch (OperationCanceledException e) {
+                // expected, some pipelines return what they have instead
+            }
+            long returnedAt = System.nanoTime();
+            if (monitor.getCancelledAt() == 0) {
+                // the pipeline made fewer checks than in the first run
+                continue;
+            }
+            long latency = TimeUnit.NANOSECONDS.toMillis(returnedAt - monitor.getCancelledAt());
+            assertTrue(String.format("%s cancelled at check %d of %d should return within %d ms, but took %d ms", scenario, cancelAt,
+                    checks, MAX_CANCELLATION_LATENCY_MS, latency), latency <= MAX_CANCELLATION_LATENCY_MS);
+        }
+    }
+
+    private static Map<String, Object> packageParams(NodeKind kind, String projectUri) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("kind", kind.getValue());
+        params.put("projectUri", projectUri);
+        return params;
+    }
+}
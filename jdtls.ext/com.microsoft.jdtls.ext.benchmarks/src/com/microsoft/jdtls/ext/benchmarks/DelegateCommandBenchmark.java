@@ -0,0 +1,395 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.benchmarks;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.microsoft.jdtls.ext.core.CommandHandler;
+import com.microsoft.jdtls.ext.core.JdtlsExtActivator;
+import com.microsoft.jdtls.ext.core.model.NodeKind;
+
+/**
+ * Benchmarks of the delegate commands against the fixture projects under <code>test/</code>.
+ *
+ * The fixtures are copied into a scratch folder, imported into a headless jdt.ls workspace,
+ * and then every scenario is driven through {@link CommandHandler} exactly like the client
+ * does, for <code>benchmark.warmup</code> warmup and <code>benchmark.iterations</code>
+ * measurement iterations. The results are written as JSON to <code>benchmark.output</code>.
+ *
+ * Every scenario is measured twice: <code>cold</code> clears the caches of the
+ * extension before each iteration, see {@link JdtlsExtActivator#clearCaches()},
+ * so that it measures the command pipelines, and <code>warm</code> keeps them,
+ * so that it measures the repeated calls of the client.
+ *
+ * Run with <code>mvn verify -Pbenchmark</code> from the <code>jdtls.ext</code> folder.
+ */
+public class DelegateCommandBenchmark {
+
+    static final String[] FIXTURES = { "maven", "gradle", "multi-module", "java9", "invisible" };
+
+    private static final long IMPORT_TIMEOUT_MS = 10 * 60 * 1000;
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final CommandHandler handler = new CommandHandler();
+
+    private static final List<ScenarioResult> results = new ArrayList<>();
+
+    static Path workspaceFolder;
+
+    private static boolean imported;
+
+    private static int warmup;
+
+    private static int iterations;
+
+    private static class ScenarioResult {
+        String scenario;
+        String fixture;
+        // "cold" or "warm"
+        String caches;
+        int iterations;
+        long minMicros;
+        long meanMicros;
+        long p50Micros;
+        long p95Micros;
+        long maxMicros;
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+        void run() throws Exception;
+    }
+
+    /**
+     * Import the fixtures once, they are shared with the other tests of the bundle.
+     */
+    @BeforeClass
+    public static synchronized void importFixtures() throws Exception {
+        if (imported) {
+            return;
+        }
+        imported = true;
+        warmup = Integer.getInteger("benchmark.warmup", 5);
+        iterations = Integer.getInteger("benchmark.iterations", 20);
+        Path fixtures = Paths.get(System.getProperty("benchmark.fixtures", "../../test")).toAbsolutePath().normalize();
+        workspaceFolder = Files.createTempDirectory("jdtls-ext-benchmark");
+
+        List<IPath> rootPaths = new ArrayList<>();
+        List<IPath> triggerFiles = new ArrayList<>();
+        for (String fixture : FIXTURES) {
+            Path source = fixtures.resolve(fixture);
+            assertTrue("Missing fixture " + source, Files.isDirectory(source));
+            Path target = workspaceFolder.resolve(fixture);
+            copyFolder(source, target);
+            rootPaths.add(org.eclipse.core.runtime.Path.fromOSString(target.toString()));
+            // the invisible project is only created when one of its Java files is opened
+            try (Stream<Path> files = Files.walk(target)) {
+                files.filter(f -> f.toString().endsWith(".java")).findFirst()
+                    .ifPresent(f -> triggerFiles.add(org.eclipse.core.runtime.Path.fromOSString(f.toString())));
+            }
+        }
+
+        JavaLanguageServerPlugin.getPreferencesManager().getPreferences().setTriggerFiles(triggerFiles);
+        JavaLanguageServerPlugin.getProjectsManager().initializeProjects(rootPaths, new NullProgressMonitor());
+        waitForJobs();
+        assertFalse("No Java project was imported", ProjectUtils.getJavaProjects().length == 0);
+    }
+
+    @AfterClass
+    public static void writeResults() throws IOException {
+        Path output = Paths.get(System.getProperty("benchmark.output", "target/benchmark-results.json"));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("javaVersion", System.getProperty("java.version"));
+        report.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        report.put("warmup", warmup);
+        report.put("iterations", iterations);
+        report.put("results", results);
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            gson.toJson(report, writer);
+        }
+    }
+
+    @Test
+    public void listProjects() throws Exception {
+        for (String fixture : FIXTURES) {
+            String workspaceUri = workspaceFolder.resolve(fixture).toUri().toString();
+            measure("java.project.list", fixture, () -> handler.executeCommand("java.project.list",
+                    Arrays.asList(workspaceUri, Boolean.FALSE), new NullProgressMonitor()));
+        }
+    }
+
+    @Test
+    public void getMainClasses() throws Exception {
+        for (String fixture : FIXTURES) {
+            String workspaceUri = workspaceFolder.resolve(fixture).toUri().toString();
+            measure("java.project.getMainClasses", fixture, () -> handler.executeCommand("java.project.getMainClasses",
+                    Arrays.asList(workspaceUri), new NullProgressMonitor()));
+        }
+    }
+
+    @Test
+    public void getChildren() throws Exception {
+        for (IJavaProject javaProject : ProjectUtils.getJavaProjects()) {
+            IProject project = javaProject.getProject();
+            if (isDefaultProject(project)) {
+                continue;
+            }
+            String projectUri = ProjectUtils.getProjectRealFolder(project).toFile().toURI().toString();
+            Map<String, Object> projectParams = packageParams(NodeKind.PROJECT, projectUri);
+            measure("java.getPackageData:PROJECT", project.getName(), () -> getPackageData(projectParams));
+
+            for (IPackageFragmentRoot root : javaProject.getPackageFragmentRoots()) {
+                if (root.getKind() != IPackageFragmentRoot.K_SOURCE) {
+                    continue;
+                }
+                for (boolean hierarchical : new boolean[] { false, true }) {
+                    Map<String, Object> rootParams = packageParams(NodeKind.PACKAGEROOT, projectUri);
+                    rootParams.put("path", root.getPath().toPortableString());
+                    rootParams.put("handlerIdentifier", root.getHandleIdentifier());
+                    rootParams.put("isHierarchicalView", hierarchical);
+                    measure("java.getPackageData:PACKAGEROOT" + (hierarchical ? ":hierarchical" : ":flat"),
+                            project.getName() + "/" + root.getElementName(), () -> getPackageData(rootParams));
+                }
+                for (IJavaElement child : root.getChildren()) {
+                    IPackageFragment fragment = (IPackageFragment) child;
+                    if (!fragment.containsJavaResources()) {
+                        continue;
+                    }
+                    Map<String, Object> packageParams = packageParams(NodeKind.PACKAGE, projectUri);
+                    packageParams.put("path", fragment.getElementName());
+                    packageParams.put("handlerIdentifier", fragment.getHandleIdentifier());
+                    measure("java.getPackageData:PACKAGE", project.getName() + "/" + fragment.getElementName(),
+                            () -> getPackageData(packageParams));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void getContainerChildren() throws Exception {
+        for (IJavaProject javaProject : ProjectUtils.getJavaProjects()) {
+            IProject project = javaProject.getProject();
+            if (isDefaultProject(project)) {
+                continue;
+            }
+            String projectUri = ProjectUtils.getProjectRealFolder(project).toFile().toURI().toString();
+            for (IClasspathEntry entry : javaProject.getRawClasspath()) {
+                if (entry.getEntryKind() != IClasspathEntry.CPE_CONTAINER) {
+                    continue;
+                }
+                Map<String, Object> params = packageParams(NodeKind.CONTAINER, projectUri);
+                params.put("path", entry.getPath().toPortableString());
+                measure("java.getPackageData:CONTAINER", project.getName() + "/" + entry.getPath().segment(0),
+                        () -> getPackageData(params));
+            }
+        }
+    }
+
+    @Test
+    public void resolvePath() throws Exception {
+        for (ICompilationUnit unit : getCompilationUnits()) {
+            String uri = JDTUtils.toUri(unit);
+            measure("java.resolvePath", getFixtureName(unit), () -> handler.executeCommand("java.resolvePath",
+                    Arrays.asList(uri), new NullProgressMonitor()));
+        }
+    }
+
+    @Test
+    public void getImportClassContent() throws Exception {
+        for (ICompilationUnit unit : getCompilationUnits()) {
+            String uri = JDTUtils.toUri(unit);
+            measure("java.project.getImportClassContent", getFixtureName(unit),
+                    () -> handler.executeCommand("java.project.getImportClassContent", Arrays.asList(uri), new NullProgressMonitor()));
+        }
+    }
+
+    @Test
+    public void getProjectDependencies() throws Exception {
+        for (ICompilationUnit unit : getCompilationUnits()) {
+            String uri = JDTUtils.toUri(unit);
+            measure("java.project.getDependencies", getFixtureName(unit),
+                    () -> handler.executeCommand("java.project.getDependencies", Arrays.asList(uri), new NullProgressMonitor()));
+        }
+    }
+
+    private static Object getPackageData(Map<String, Object> params) throws Exception {
+        return handler.executeCommand("java.getPackageData", Arrays.asList(params), new NullProgressMonitor());
+    }
+
+    private static Map<String, Object> packageParams(NodeKind kind, String projectUri) {
+        // mimic the JSON object sent by the client, the kind is serialized as its value
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("kind", kind.getValue());
+        params.put("projectUri", projectUri);
+        return params;
+    }
+
+    private static void measure(String scenario, String fixture, Scenario body) throws Exception {
+        measure(scenario, fixture, body, true);
+        measure(scenario, fixture, body, false);
+    }
+
+    private static void measure(String scenario, String fixture, Scenario body, boolean cold) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            if (cold) {
+                JdtlsExtActivator.clearCaches();
+            }
+            body.run();
+        }
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            if (cold) {
+                JdtlsExtActivator.clearCaches();
+            }
+            long start = System.nanoTime();
+            body.run();
+            samples[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(samples);
+
+        ScenarioResult result = new ScenarioResult();
+        result.scenario = scenario;
+        result.fixture = fixture;
+        result.caches = cold ? "cold" : "warm";
+        result.iterations = iterations;
+        if (iterations > 0) {
+            result.minMicros = samples[0];
+            result.maxMicros = samples[iterations - 1];
+            result.meanMicros = Arrays.stream(samples).sum() / iterations;
+            result.p50Micros = samples[(int) Math.ceil(0.50 * iterations) - 1];
+            result.p95Micros = samples[(int) Math.ceil(0.95 * iterations) - 1];
+        }
+        synchronized (results) {
+            results.add(result);
+        }
+    }
+
+    private static List<ICompilationUnit> getCompilationUnits() throws CoreException {
+        List<ICompilationUnit> units = new ArrayList<>();
+        for (IJavaProject javaProject : ProjectUtils.getJavaProjects()) {
+            if (isDefaultProject(javaProject.getProject())) {
+                continue;
+            }
+            for (IPackageFragmentRoot root : javaProject.getPackageFragmentRoots()) {
+                if (root.getKind() != IPackageFragmentRoot.K_SOURCE) {
+                    continue;
+                }
+                for (IJavaElement child : root.getChildren()) {
+                    Collections.addAll(units, ((IPackageFragment) child).getCompilationUnits());
+                }
+            }
+        }
+        return units.stream().filter(unit -> !"module-info.java".equals(unit.getElementName()))
+                .collect(Collectors.toList());
+    }
+
+    private static String getFixtureName(ICompilationUnit unit) {
+        return unit.getJavaProject().getElementName() + "/" + unit.getElementName();
+    }
+
+    static boolean isDefaultProject(IProject project) {
+        return JavaCore.create(project) == null
+                || org.eclipse.jdt.ls.core.internal.managers.ProjectsManager.DEFAULT_PROJECT_NAME.equals(project.getName());
+    }
+
+    private static void waitForJobs() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + IMPORT_TIMEOUT_MS;
+        // the import schedules follow-up jobs (build, classpath update), wait until all of them settle
+        int idleChecks = 0;
+        while (idleChecks < 3 && System.currentTimeMillis() < deadline) {
+            if (Job.getJobManager().isIdle()) {
+                idleChecks++;
+            } else {
+                idleChecks = 0;
+            }
+            Thread.sleep(200);
+        }
+        try {
+            ResourcesPlugin.getWorkspace().getRoot().refreshLocal(org.eclipse.core.resources.IResource.DEPTH_INFINITE,
+                    new NullProgressMonitor());
+        } catch (CoreException e) {
+            // the benchmark still runs against whatever was imported
+        }
+    }
+
+    /**
+     * Skip build outputs and IDE metadata that previous runs may have left in the fixtures.
+     */
+    private static boolean isExcluded(Path relative) {
+        for (Path segment : relative) {
+            String name = segment.toString();
+            if ("target".equals(name) || "build".equals(name) || "bin".equals(name) || ".gradle".equals(name)
+                    || ".settings".equals(name) || ".project".equals(name) || ".classpath".equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void copyFolder(Path source, Path target) throws IOException {
+        try (Stream<Path> paths = Files.walk(source)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                Path relative = source.relativize(path);
+                if (isExcluded(relative)) {
+                    continue;
+                }
+                Path destination = target.resolve(relative.toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(destination);
+                } else {
+                    Files.copy(path, destination, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+}
@@ -71,7 +71,7 @@ public class AiContextCommand {
         }
 
         try {
-            String fileUri = (String) arguments.get(0);
+            String fileUri = CommandArguments.getString(arguments, 0);
             if (fileUri == null || fileUri.trim().isEmpty()) {
                 result.error = "Invalid file URI";
                 return result;
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Runs an ordered list of delegate commands in a single LSP round-trip.
+ *
+ * The first argument is a list of items shaped as
+ * <code>{ "command": "java.getPackageData", "arguments": [ ... ], "timeout": 500 }</code>,
+ * where the optional timeout is the time budget of the item in milliseconds.
+ * Items are executed sequentially in the given order and each one produces a
+ * {@link BatchResult}, so a failing item never hides the results of the others.
+ * Only the read-only commands of {@link CommandCoalescer#READ_ONLY_COMMANDS}
+ * can be batched, the other items fail without being executed.
+ *
+ * The optional second argument is the time budget of the whole batch in
+ * milliseconds. The items still running when it is spent are cancelled, and
+ * the batch returns the results of the items which finished before it.
+ */
+public final class BatchCommand {
+
+    public static final String COMMAND_ID = "java.project.batch";
+
+    private static final String KEY_COMMAND = "command";
+
+    private static final String KEY_ARGUMENTS = "arguments";
+
+    private static final String KEY_TIMEOUT = "timeout";
+
+    /**
+     * Result of one item in the batch.
+     */
+    public static class BatchResult {
+        public String command;
+        public Object result;
+        public String error; // Only set when the item failed
+        public boolean isCancelled;
+        public long elapsed; // Time spent on the item in milliseconds
+
+        public BatchResult(String command) {
+            this.command = command;
+        }
+    }
+
+    private BatchCommand() {
+    }
+
+    /**
+     * Execute all the sub-commands of a batch request.
+     *
+     * @param handler   the command handler used to dispatch each sub-command
+     * @param arguments List containing the sub-command list as the first element,
+     *                  and optionally the time budget of the batch
+     * @param monitor   Progress monitor for cancellation support
+     * @return the per-item results, in the same order as the request
+     */
+    public static List<BatchResult> executeBatch(CommandHandler handler, List<Object> arguments, IProgressMonitor monitor) {
+        if (arguments == null || arguments.isEmpty() || !(arguments.get(0) instanceof List)) {
+            throw new IllegalArgumentException("Should have a list of sub-commands as the first argument for batch");
+        }
+
+        List<?> items = (List<?>) arguments.get(0);
+        Number batchTimeout = CommandArguments.get(arguments, 1, Number.class);
+        Deadline batchDeadline = Deadline.of(monitor, batchTimeout == null ? 0 : batchTimeout.longValue());
+        List<BatchResult> results = new ArrayList<>(items.size());
+        boolean cancelled = false;
+        for (Object item : items) {
+            String commandId = getCommandId(item);
+            BatchResult result = new BatchResult(commandId);
+            results.add(result);
+            if (cancelled || batchDeadline.isCanceled()) {
+                cancelled = true;
+                result.isCancelled = true;
+                continue;
+            }
+
+            if (StringUtils.isBlank(commandId)) {
+                result.error = "Missing command id";
+                continue;
+            }
+            if (COMMAND_ID.equals(commandId)) {
+                result.error = "Nested batch commands are not supported";
+                continue;
+            }
+            if (!CommandCoalescer.READ_ONLY_COMMANDS.contains(commandId)) {
+                result.error = "Only read-only commands can be batched: " + commandId;
+                continue;
+            }
+
+            Deadline deadline = Deadline.of(batchDeadline, getTimeout(item));
+            try {
+                result.result = handler.execute(commandId, getArguments(item), deadline);
+                if (deadline.isExpired()) {
+                    result.isCancelled = true;
+                }
+            } catch (OperationCanceledException e) {
+                // only the cancellation or the budget of the whole batch stops the remaining items
+                cancelled = batchDeadline.isCanceled();
+                result.isCancelled = true;
+            } catch (Exception e) {
+                JdtlsExtActivator.logException("Error in batch item " + commandId, e);
+                result.error = StringUtils.isNotBlank(e.getMessage()) ? e.getMessage() : e.getClass().getName();
+            } finally {
+                result.elapsed = deadline.elapsedMillis();
+            }
+        }
+
+        return results;
+    }
+
+    private static String getCommandId(Object item) {
+        if (item instanceof Map) {
+            Object command = ((Map<?, ?>) item).get(KEY_COMMAND);
+            return command instanceof String ? (String) command : null;
+        }
+        return null;
+    }
+
+    private static long getTimeout(Object item) {
+        Object timeout = ((Map<?, ?>) item).get(KEY_TIMEOUT);
+        return timeout instanceof Number ? ((Number) timeout).longValue() : 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> getArguments(Object item) {
+        Object args = ((Map<?, ?>) item).get(KEY_ARGUMENTS);
+        if (args instanceof List) {
+            // the arguments have already been parsed from JSON, reuse them as-is
+            return (List<Object>) args;
+        }
+        return Collections.emptyList();
+    }
+}
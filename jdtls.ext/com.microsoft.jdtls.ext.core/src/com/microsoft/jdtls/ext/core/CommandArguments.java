@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.lsp4j.jsonrpc.json.adapters.CollectionTypeAdapter;
+import org.eclipse.lsp4j.jsonrpc.json.adapters.EnumTypeAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Binds the arguments of the delegate commands to typed values.
+ *
+ * The language server has already parsed the arguments into maps, lists,
+ * strings, numbers and booleans. They are read directly by the Gson type
+ * adapters, instead of being serialized back to a JSON string and parsed
+ * again.
+ */
+public final class CommandArguments {
+
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new CollectionTypeAdapter.Factory())
+            .registerTypeAdapterFactory(new EnumTypeAdapter.Factory())
+            .create();
+
+    private CommandArguments() {
+    }
+
+    /**
+     * Get the argument at the given index bound to the given type.
+     *
+     * @return the bound value, or <code>null</code> if there is no such argument
+     * @throws JsonParseException if the argument cannot be bound to the type
+     */
+    public static <T> T get(List<Object> arguments, int index, Class<T> type) {
+        if (arguments == null || index >= arguments.size()) {
+            return null;
+        }
+        return bind(arguments.get(index), type);
+    }
+
+    public static String getString(List<Object> arguments, int index) {
+        return get(arguments, index, String.class);
+    }
+
+    public static boolean getBoolean(List<Object> arguments, int index, boolean defaultValue) {
+        Boolean value = get(arguments, index, Boolean.class);
+        return value == null ? defaultValue : value;
+    }
+
+    public static <T> T bind(Object value, Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+        if (type.isInstance(value)) {
+            return type.cast(value);
+        }
+        if (value instanceof JsonElement) {
+            return gson.fromJson((JsonElement) value, type);
+        }
+        try {
+            return gson.getAdapter(type).read(new ObjectTreeReader(value));
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            // Some adapters, e.g. the ones of the map types, need to peek into the
+            // JSON text. Go through a JSON tree for them, which also reports the
+            // actual error when the value cannot be bound.
+            return gson.fromJson(gson.toJsonTree(value), type);
+        }
+    }
+
+    /**
+     * A {@link JsonReader} walking a tree of maps, lists and primitive values,
+     * in the same way as Gson reads its own JSON tree.
+     */
+    private static final class ObjectTreeReader extends JsonReader {
+
+        private static final Reader UNREADABLE_READER = new Reader() {
+            @Override
+            public int read(char[] buffer, int offset, int count) throws IOException {
+                throw new IOException("The arguments are not backed by a JSON text");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        private Object[] stack = new Object[32];
+        private int stackSize = 0;
+
+        ObjectTreeReader(Object value) {
+            super(UNREADABLE_READER);
+            push(value);
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            expect(JsonToken.BEGIN_ARRAY);
+            push(((List<?>) peekStack()).iterator());
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            expect(JsonToken.END_ARRAY);
+            popStack(); // the iterator
+            popStack(); // the list
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            expect(JsonToken.BEGIN_OBJECT);
+            push(((Map<?, ?>) peekStack()).entrySet().iterator());
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            expect(JsonToken.END_OBJECT);
+            popStack(); // the iterator
+            popStack(); // the map
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            JsonToken token = peek();
+            return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+        }
+
+        @Override
+        public JsonToken peek() throws IOException {
+            if (stackSize == 0) {
+                return JsonToken.END_DOCUMENT;
+            }
+
+            Object top = peekStack();
+            if (top instanceof Iterator) {
+                boolean isObject = stack[stackSize - 2] instanceof Map;
+                Iterator<?> iterator = (Iterator<?>) top;
+                if (!iterator.hasNext()) {
+                    return isObject ? JsonToken.END_OBJECT : JsonToken.END_ARRAY;
+                }
+                if (isObject) {
+                    return JsonToken.NAME;
+                }
+                push(iterator.next());
+                return peek();
+            } else if (top instanceof Map) {
+                return JsonToken.BEGIN_OBJECT;
+            } else if (top instanceof List) {
+                return JsonToken.BEGIN_ARRAY;
+            } else if (top instanceof String || top instanceof Character) {
+                return JsonToken.STRING;
+            } else if (top instanceof Boolean) {
+                return JsonToken.BOOLEAN;
+            } else if (top instanceof Number) {
+                return JsonToken.NUMBER;
+            } else if (top == null) {
+                return JsonToken.NULL;
+            }
+            throw new IllegalStateException("Unsupported argument type " + top.getClass().getName());
+        }
+
+        @Override
+        public String nextName() throws IOException {
+            expect(JsonToken.NAME);
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) ((Iterator<?>) peekStack()).next();
+            push(entry.getValue());
+            return String.valueOf(entry.getKey());
+        }
+
+        @Override
+        public String nextString() throws IOException {
+            JsonToken token = peek();
+            if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+                throw new IllegalStateException("Expected " + JsonToken.STRING + " but was " + token);
+            }
+            return String.valueOf(popStack());
+        }
+
+        @Override
+        public boolean nextBoolean() throws IOException {
+            expect(JsonToken.BOOLEAN);
+            return (Boolean) popStack();
+        }
+
+        @Override
+        public void nextNull() throws IOException {
+            expect(JsonToken.NULL);
+            popStack();
+        }
+
+        @Override
+        public double nextDouble() throws IOException {
+            Object value = popNumber();
+            return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble((String) value);
+        }
+
+        @Override
+        public long nextLong() throws IOException {
+            Object value = popNumber();
+            if (value instanceof String) {
+                return Long.parseLong((String) value);
+            }
+            Number number = (Number) value;
+            long result = number.longValue();
+            if (result != number.doubleValue()) {
+                throw new NumberFormatException("Expected a long but was " + number);
+            }
+            return result;
+        }
+
+        @Override
+        public int nextInt() throws IOException {
+            long result = nextLong();
+            if (result != (int) result) {
+                throw new NumberFormatException("Expected an int but was " + result);
+            }
+            return (int) result;
+        }
+
+        @Override
+        public void skipValue() throws IOException {
+            switch (peek()) {
+                case NAME:
+                    nextName();
+                    break;
+                case END_ARRAY:
+                    endArray();
+                    break;
+                case END_OBJECT:
+                    endObject();
+                    break;
+                case END_DOCUMENT:
+                    break;
+                default:
+                    popStack();
+                    break;
+            }
+        }
+
+        @Override
+        public void close() {
+            stackSize = 0;
+        }
+
+        @Override
+        public String getPath() {
+            return "$";
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName();
+        }
+
+        private Object popNumber() throws IOException {
+            JsonToken token = peek();
+            if (token != JsonToken.NUMBER && token != JsonToken.STRING) {
+                throw new IllegalStateException("Expected " + JsonToken.NUMBER + " but was " + token);
+            }
+            Object value = popStack();
+            return value instanceof Character ? value.toString() : value;
+        }
+
+        private void expect(JsonToken expected) throws IOException {
+            JsonToken token = peek();
+            if (token != expected) {
+                throw new IllegalStateException("Expected " + expected + " but was " + token);
+            }
+        }
+
+        private Object peekStack() {
+            return stack[stackSize - 1];
+        }
+
+        private Object popStack() {
+            Object result = stack[--stackSize];
+            stack[stackSize] = null;
+            return result;
+        }
+
+        private void push(Object value) {
+            if (stackSize == stack.length) {
+                Object[] newStack = new Object[stackSize * 2];
+                System.arraycopy(stack, 0, newStack, 0, stackSize);
+                stack = newStack;
+            }
+            stack[stackSize++] = value;
+        }
+    }
+}
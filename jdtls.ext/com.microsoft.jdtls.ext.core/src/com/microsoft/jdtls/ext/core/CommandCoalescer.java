@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import com.google.gson.Gson;
+
+/**
+ * Coalesces concurrent calls of the same read-only command.
+ *
+ * Calls are keyed by the command id and the normalized arguments. The first
+ * caller computes the result, and the callers arriving while it is still
+ * running wait for it and get the same result instead of repeating the work.
+ * When the computing caller is cancelled, the waiting callers compute the
+ * result by themselves, since a cancelled computation may return an
+ * incomplete result.
+ */
+final class CommandCoalescer {
+
+    // Also the only commands allowed in a batch, see BatchCommand
+    static final Set<String> READ_ONLY_COMMANDS = Set.of(
+        "java.project.list",
+        "java.getPackageData",
+        "java.resolvePath",
+        "java.project.getMainClasses",
+        "java.project.checkImportStatus",
+        "java.project.getImportClassContent",
+        "java.project.getDependencies",
+        "java.project.getFileImports"
+    );
+
+    // Interval to check the cancellation of a waiting caller, which bounds the latency of a cancellation
+    private static final long POLL_INTERVAL_MS = 5;
+
+    private static final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private static final Gson gson = new Gson();
+
+    private CommandCoalescer() {
+    }
+
+    static Object execute(String commandId, List<Object> arguments, IProgressMonitor monitor, Callable<Object> computation) throws Exception {
+        if (!READ_ONLY_COMMANDS.contains(commandId)) {
+            return computation.call();
+        }
+
+        String key = commandId + ":" + gson.toJson(normalize(arguments));
+        while (true) {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                return compute(key, future, monitor, computation);
+            }
+
+            try {
+                return await(existing, monitor);
+            } catch (OperationCanceledException e) {
+                if (isCanceled(monitor)) {
+                    throw e;
+                }
+                // the computing caller has been cancelled, try again
+            }
+        }
+    }
+
+    private static Object compute(String key, CompletableFuture<Object> future, IProgressMonitor monitor,
+            Callable<Object> computation) throws Exception {
+        Object result;
+        try {
+            result = computation.call();
+        } catch (Throwable e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+
+        // remove the entry before completing it, so that a retrying caller never sees it again
+        inFlight.remove(key, future);
+        if (isCanceled(monitor)) {
+            future.completeExceptionally(new OperationCanceledException());
+        } else {
+            future.complete(result);
+        }
+        return result;
+    }
+
+    private static Object await(CompletableFuture<Object> future, IProgressMonitor monitor) throws Exception {
+        while (true) {
+            if (isCanceled(monitor)) {
+                throw new OperationCanceledException();
+            }
+            try {
+                return future.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // check the cancellation and wait again
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isCanceled(IProgressMonitor monitor) {
+        return monitor != null && monitor.isCanceled();
+    }
+
+    /**
+     * Sort the keys of the JSON objects so that the same arguments always
+     * produce the same key, whatever the order of their properties.
+     */
+    private static Object normalize(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), normalize(entry.getValue()));
+            }
+            return sorted;
+        } else if (value instanceof List) {
+            List<Object> list = new ArrayList<>();
+            for (Object item : (List<?>) value) {
+                list.add(normalize(item));
+            }
+            return list;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Runs the read-only commands off the thread which received the request.
+ *
+ * The commands are split into two lanes with their own concurrency limit: the
+ * interactive lane serves the explorer, and the background lane serves the AI
+ * context lookups, so that slow lookups never hold the threads needed to
+ * expand the tree. On Java 21 or newer, the tasks run on virtual threads.
+ * Otherwise each lane has a bounded pool of platform threads.
+ *
+ * The lane threads are never interrupted, since an interrupt can close the
+ * channels of the files and jars the commands are reading. When the request is
+ * cancelled, the caller returns at once and the task stops at its next check
+ * of the cancelled monitor.
+ *
+ * The strategy can be forced with the system property {@link #MODE_PROPERTY}:
+ * <code>virtual</code>, <code>pool</code>, or <code>inline</code> to run all
+ * the commands on the calling thread as before.
+ */
+final class CommandExecutor {
+
+    static final String MODE_PROPERTY = "java.dependency.executor";
+
+    private static final String MODE_VIRTUAL = "virtual";
+    private static final String MODE_POOL = "pool";
+    private static final String MODE_INLINE = "inline";
+
+    private static final Set<String> INTERACTIVE_COMMANDS = Set.of(
+        "java.project.list",
+        "java.getPackageData",
+        "java.resolvePath",
+        "java.project.getMainClasses",
+        "java.project.checkImportStatus"
+    );
+
+    private static final Set<String> BACKGROUND_COMMANDS = Set.of(
+        "java.project.getImportClassContent",
+        "java.project.getDependencies",
+        "java.project.getFileImports"
+    );
+
+    // Interval to check the cancellation of the calling thread, which bounds the latency of a cancellation
+    private static final long POLL_INTERVAL_MS = 5;
+
+    // Set on the lane threads, so that nested commands run inline instead of waiting for a free thread
+    private static final ThreadLocal<Boolean> onLane = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private static Lane interactiveLane;
+    private static Lane backgroundLane;
+    private static boolean initialized;
+
+    private CommandExecutor() {
+    }
+
+    /**
+     * Execute the command on its lane and wait for the result. Commands which
+     * do not belong to a lane run on the calling thread.
+     */
+    static Object execute(String commandId, IProgressMonitor monitor, Callable<Object> task) throws Exception {
+        Lane lane = getLane(commandId);
+        if (lane == null || onLane.get()) {
+            return task.call();
+        }
+        return lane.execute(monitor, task);
+    }
+
+    private static synchronized Lane getLane(String commandId) {
+        if (!initialized) {
+            initialized = true;
+            String mode = System.getProperty(MODE_PROPERTY, "");
+            if (!MODE_INLINE.equals(mode)) {
+                int processors = Runtime.getRuntime().availableProcessors();
+                boolean virtual = !MODE_POOL.equals(mode) && VirtualThreads.isSupported();
+                if (MODE_VIRTUAL.equals(mode) && !virtual) {
+                    JdtlsExtActivator.logInfo("Virtual threads are not supported by the runtime, use a thread pool to execute the commands.");
+                }
+                interactiveLane = new Lane("interactive", Math.max(4, processors), virtual);
+                backgroundLane = new Lane("background", Math.max(2, processors / 4), virtual);
+            }
+        }
+
+        if (INTERACTIVE_COMMANDS.contains(commandId)) {
+            return interactiveLane;
+        } else if (BACKGROUND_COMMANDS.contains(commandId)) {
+            return backgroundLane;
+        }
+        return null;
+    }
+
+    static synchronized void shutdown() {
+        if (interactiveLane != null) {
+            interactiveLane.shutdown();
+            interactiveLane = null;
+        }
+        if (backgroundLane != null) {
+            backgroundLane.shutdown();
+            backgroundLane = null;
+        }
+        initialized = false;
+    }
+
+    private static final class Lane {
+        private final ExecutorService executor;
+        // Limits the concurrency of the virtual threads, the thread pools are bounded by themselves
+        private final Semaphore permits;
+
+        Lane(String name, int parallelism, boolean virtual) {
+            if (virtual) {
+                this.executor = VirtualThreads.newExecutor();
+                this.permits = new Semaphore(parallelism);
+            } else {
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(parallelism, parallelism, 30, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), new LaneThreadFactory(name));
+                pool.allowCoreThreadTimeOut(true);
+                this.executor = pool;
+                this.permits = null;
+            }
+        }
+
+        Object execute(IProgressMonitor monitor, Callable<Object> task) throws Exception {
+            Future<Object> future = executor.submit(() -> {
+                if (permits != null) {
+                    permits.acquire();
+                }
+                onLane.set(Boolean.TRUE);
+                try {
+                    if (monitor != null && monitor.isCanceled()) {
+                        throw new OperationCanceledException();
+                    }
+                    return task.call();
+                } finally {
+                    onLane.set(Boolean.FALSE);
+                    if (permits != null) {
+                        permits.release();
+                    }
+                }
+            });
+
+            while (true) {
+                if (monitor != null && monitor.isCanceled()) {
+                    future.cancel(false);
+                    throw new OperationCanceledException();
+                }
+                try {
+                    return future.get(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // check the cancellation and wait again
+                } catch (InterruptedException e) {
+                    // the task is not waited for anymore, stop it through its monitor
+                    future.cancel(false);
+                    if (monitor != null) {
+                        monitor.setCanceled(true);
+                    }
+                    Thread.currentThread().interrupt();
+                    throw new OperationCanceledException();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw e;
+                }
+            }
+        }
+
+        void shutdown() {
+            // the queued tasks are dropped, the running ones end with their requests without being interrupted
+            if (executor instanceof ThreadPoolExecutor) {
+                ((ThreadPoolExecutor) executor).getQueue().clear();
+            }
+            executor.shutdown();
+        }
+    }
+
+    private static final class LaneThreadFactory implements ThreadFactory {
+        private final String name;
+        private final AtomicInteger count = new AtomicInteger();
+
+        LaneThreadFactory(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "Java Project Command (" + name + ") #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * The bundle targets Java 11, so the virtual thread API is looked up reflectively.
+     */
+    private static final class VirtualThreads {
+        private static final java.lang.reflect.Method factory = lookup();
+
+        private static java.lang.reflect.Method lookup() {
+            if (Runtime.version().feature() < 21) {
+                return null;
+            }
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException | SecurityException e) {
+                return null;
+            }
+        }
+
+        static boolean isSupported() {
+            return factory != null;
+        }
+
+        static ExecutorService newExecutor() {
+            try {
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create the virtual thread executor", e);
+            }
+        }
+    }
+}
@@ -15,20 +15,60 @@ import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.ls.core.internal.IDelegateCommandHandler;
 
 public class CommandHandler implements IDelegateCommandHandler {
 
     @Override
     public Object executeCommand(String commandId, List<Object> arguments, IProgressMonitor monitor) throws Exception {
+        return execute(commandId, arguments, monitor);
+    }
+
+    /**
+     * Execute the command and record its metrics, see {@link CommandMetrics}.
+     * Concurrent identical calls of read-only commands share a single
+     * computation, see {@link CommandCoalescer}, which runs on the lane of
+     * the command, see {@link CommandExecutor}. The monitor is wrapped in a
+     * {@link Deadline}, which is passed down to all the command pipelines.
+     * A command has no time budget of its own, it is stopped when the client
+     * cancels the request; the budgets are set on the items of
+     * {@link BatchCommand} and by the pipelines which bound their own work.
+     */
+    Object execute(String commandId, List<Object> arguments, IProgressMonitor monitor) throws Exception {
+        CommandMetrics.Sample sample = CommandMetrics.start(commandId);
+        Deadline deadline = Deadline.of(monitor);
+        try {
+            Object result = CommandCoalescer.execute(commandId, arguments, deadline,
+                () -> CommandExecutor.execute(commandId, deadline,
+                    () -> sample.measure(() -> dispatch(commandId, arguments, deadline))));
+            sample.completed(deadline);
+            return result;
+        } catch (OperationCanceledException e) {
+            sample.cancelled();
+            throw e;
+        } catch (Exception e) {
+            sample.failed();
+            throw e;
+        }
+    }
+
+    private Object dispatch(String commandId, List<Object> arguments, IProgressMonitor monitor) throws Exception {
         if (!StringUtils.isBlank(commandId)) {
             switch (commandId) {
+                case BatchCommand.COMMAND_ID:
+                    return BatchCommand.executeBatch(this, arguments, monitor);
+                case CommandMetrics.COMMAND_ID:
+                    return CommandMetrics.getMetrics(arguments, monitor);
+                case JdtlsExtActivator.CLEAR_CACHES_COMMAND_ID:
+                    JdtlsExtActivator.clearCaches();
+                    return null;
                 case "java.project.list":
                     return ProjectCommand.listProjects(arguments, monitor);
                 case "java.project.refreshLib":
                     return ProjectCommand.refreshLibraries(arguments, monitor);
                 case "java.getPackageData":
-                    return PackageCommand.getChildren(arguments, monitor);
+                    return PackageCommand.getPackageData(arguments, monitor);
                 case "java.resolvePath":
                     return PackageCommand.resolvePath(arguments, monitor);
                 case "java.project.getMainClasses":
@@ -43,6 +83,12 @@ public class CommandHandler implements IDelegateCommandHandler {
                     return ProjectCommand.getProjectDependencies(arguments, monitor);
                 case "java.project.getFileImports":
                     return AiContextCommand.getFileImports(arguments, monitor);
+                case TreeDeltaPublisher.COMMAND_ID:
+                    return TreeDeltaPublisher.setEnabled(arguments, monitor);
+                case TreeExporter.COMMAND_ID:
+                    return TreeExporter.exportTree(arguments, monitor);
+                case TreeFilter.COMMAND_ID:
+                    return TreeFilter.filterTree(arguments, monitor);
                 default:
                     break;
             }
@@ -0,0 +1,331 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.microsoft.jdtls.ext.core.jfr.Tracer;
+import com.microsoft.jdtls.ext.core.jfr.Tracer.CommandSpan;
+import com.microsoft.jdtls.ext.core.model.CommandMetricsResult;
+import com.microsoft.jdtls.ext.core.model.CommandMetricsResult.CommandMetric;
+
+/**
+ * Registry of latency, outcome and allocation metrics for every command
+ * dispatched by {@link CommandHandler}. Each command is also reported as a
+ * JFR event, see {@link Tracer}.
+ *
+ * The data can be queried with the <code>java.project.getMetrics</code> command.
+ * When the system property {@link #DUMP_INTERVAL_PROPERTY} is set to a positive
+ * number of seconds, a snapshot is also written periodically as JSON to the
+ * bundle state location.
+ */
+public final class CommandMetrics {
+
+    public static final String COMMAND_ID = "java.project.getMetrics";
+
+    public static final String DUMP_INTERVAL_PROPERTY = "java.dependency.metrics.dumpInterval";
+
+    private static final String DUMP_FILE_NAME = "command-metrics.json";
+
+    // Number of most recent latency samples kept per command for the percentiles
+    private static final int RESERVOIR_SIZE = 1024;
+
+    private static final Map<String, CommandStats> stats = new ConcurrentHashMap<>();
+
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private static final boolean allocationTracking = AllocationCounter.init();
+
+    private static volatile long startTime = System.currentTimeMillis();
+
+    private static MetricsDumpJob dumpJob;
+
+    private CommandMetrics() {
+    }
+
+    /**
+     * A single in-flight measurement, started by {@link CommandMetrics#start(String)}.
+     */
+    public static final class Sample {
+        private final CommandStats commandStats;
+        private final CommandSpan span;
+        private final long startNanos;
+        private volatile long allocatedBytes = -1;
+
+        private Sample(String commandId, CommandStats commandStats) {
+            this.commandStats = commandStats;
+            this.span = Tracer.command(commandId);
+            this.startNanos = System.nanoTime();
+            commandStats.inFlight.increment();
+        }
+
+        /**
+         * Run the task and attribute the memory it allocates to this sample. The
+         * allocations are counted on the thread running the task, which is not
+         * necessarily the thread that started the sample.
+         */
+        public <T> T measure(Callable<T> task) throws Exception {
+            long startAllocatedBytes = getCurrentThreadAllocatedBytes();
+            try {
+                return task.call();
+            } finally {
+                if (startAllocatedBytes >= 0) {
+                    long endAllocatedBytes = getCurrentThreadAllocatedBytes();
+                    if (endAllocatedBytes >= startAllocatedBytes) {
+                        allocatedBytes = endAllocatedBytes - startAllocatedBytes;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Record a completed call. The call is counted as cancelled when the monitor
+         * has been cancelled, because most commands return an empty result instead
+         * of throwing in that case.
+         */
+        public void completed(IProgressMonitor monitor) {
+            if (monitor != null && monitor.isCanceled()) {
+                cancelled();
+            } else {
+                stop("completed");
+            }
+        }
+
+        public void cancelled() {
+            commandStats.cancellations.increment();
+            stop("cancelled");
+        }
+
+        public void failed() {
+            commandStats.errors.increment();
+            stop("failed");
+        }
+
+        private void stop(String outcome) {
+            span.end(outcome);
+            long elapsedMicros = (System.nanoTime() - startNanos) / 1000;
+            commandStats.inFlight.decrement();
+            commandStats.record(elapsedMicros, allocatedBytes);
+        }
+    }
+
+    private static final class CommandStats {
+        final LongAdder calls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder cancellations = new LongAdder();
+        final LongAdder inFlight = new LongAdder();
+        final LongAdder totalMicros = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final LongAdder allocationSamples = new LongAdder();
+        private final long[] latencies = new long[RESERVOIR_SIZE];
+        private int latencyCount;
+        private int nextLatency;
+        private long maxMicros;
+
+        void record(long elapsedMicros, long allocated) {
+            calls.increment();
+            totalMicros.add(elapsedMicros);
+            if (allocated >= 0) {
+                allocatedBytes.add(allocated);
+                allocationSamples.increment();
+            }
+            synchronized (this) {
+                latencies[nextLatency] = elapsedMicros;
+                nextLatency = (nextLatency + 1) % RESERVOIR_SIZE;
+                latencyCount = Math.min(latencyCount + 1, RESERVOIR_SIZE);
+                maxMicros = Math.max(maxMicros, elapsedMicros);
+            }
+        }
+
+        CommandMetric toMetric(String command) {
+            CommandMetric metric = new CommandMetric();
+            metric.command = command;
+            metric.calls = calls.sum();
+            metric.errors = errors.sum();
+            metric.cancellations = cancellations.sum();
+            metric.inFlight = inFlight.sum();
+            metric.totalMicros = totalMicros.sum();
+            long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(latencies, latencyCount);
+                metric.maxMicros = maxMicros;
+            }
+            Arrays.sort(sorted);
+            metric.p50Micros = percentile(sorted, 50);
+            metric.p95Micros = percentile(sorted, 95);
+            metric.p99Micros = percentile(sorted, 99);
+            long samples = allocationSamples.sum();
+            metric.allocatedBytes = allocationTracking ? allocatedBytes.sum() : -1;
+            metric.avgAllocatedBytes = allocationTracking ? (samples == 0 ? 0 : metric.allocatedBytes / samples) : -1;
+            return metric;
+        }
+
+        private static long percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+    }
+
+    /**
+     * Start measuring a call of the given command.
+     */
+    public static Sample start(String commandId) {
+        String key = String.valueOf(commandId);
+        return new Sample(key, stats.computeIfAbsent(key, k -> new CommandStats()));
+    }
+
+    /**
+     * Get the snapshot of all the recorded metrics.
+     *
+     * @param arguments List which optionally contains a boolean as the first
+     *                  element telling whether to reset the metrics after the
+     *                  snapshot is taken
+     * @param monitor   Progress monitor for cancellation support
+     * @return the metrics of all the commands called so far
+     */
+    public static CommandMetricsResult getMetrics(List<Object> arguments, IProgressMonitor monitor) {
+        CommandMetricsResult result = snapshot();
+        if (arguments != null && !arguments.isEmpty() && Boolean.TRUE.equals(arguments.get(0))) {
+            reset();
+        }
+        return result;
+    }
+
+    public static CommandMetricsResult snapshot() {
+        CommandMetricsResult result = new CommandMetricsResult();
+        result.timestamp = System.currentTimeMillis();
+        result.uptimeMillis = result.timestamp - startTime;
+        result.commands = new ArrayList<>();
+        for (Map.Entry<String, CommandStats> entry : stats.entrySet()) {
+            result.commands.add(entry.getValue().toMetric(entry.getKey()));
+        }
+        result.commands.sort((a, b) -> a.command.compareTo(b.command));
+        return result;
+    }
+
+    public static void reset() {
+        stats.clear();
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Start the periodic JSON dump if it is enabled by the system property.
+     */
+    static synchronized void startDumpJob(IPath stateLocation) {
+        long intervalSeconds = Long.getLong(DUMP_INTERVAL_PROPERTY, 0L);
+        if (intervalSeconds <= 0 || stateLocation == null || dumpJob != null) {
+            return;
+        }
+        dumpJob = new MetricsDumpJob(stateLocation.append(DUMP_FILE_NAME).toFile().toPath(), intervalSeconds * 1000);
+        dumpJob.schedule(dumpJob.intervalMillis);
+    }
+
+    static synchronized void stopDumpJob() {
+        if (dumpJob != null) {
+            dumpJob.cancel();
+            dumpJob = null;
+        }
+    }
+
+    private static final class MetricsDumpJob extends Job {
+        private final java.nio.file.Path target;
+        private final long intervalMillis;
+
+        MetricsDumpJob(java.nio.file.Path target, long intervalMillis) {
+            super("Dump Java project command metrics");
+            this.target = target;
+            this.intervalMillis = intervalMillis;
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            if (monitor.isCanceled()) {
+                return Status.CANCEL_STATUS;
+            }
+            try {
+                // write to a temporary file first so readers never see a partial dump
+                java.nio.file.Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+                try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    gson.toJson(snapshot(), writer);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                JdtlsExtActivator.logException("Failed to dump command metrics", e);
+            }
+            schedule(intervalMillis);
+            return Status.OK_STATUS;
+        }
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        return allocationTracking ? AllocationCounter.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Wraps the HotSpot specific ThreadMXBean so that this class still loads
+     * on runtimes that do not provide <code>com.sun.management</code>.
+     */
+    private static final class AllocationCounter {
+        private static com.sun.management.ThreadMXBean threadMXBean;
+
+        static boolean init() {
+            try {
+                java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if (bean instanceof com.sun.management.ThreadMXBean) {
+                    com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                    if (sunBean.isThreadAllocatedMemorySupported()) {
+                        if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                            sunBean.setThreadAllocatedMemoryEnabled(true);
+                        }
+                        threadMXBean = sunBean;
+                        return true;
+                    }
+                }
+            } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+                // allocation tracking is optional
+            }
+            return false;
+        }
+
+        static long getCurrentThreadAllocatedBytes() {
+            try {
+                return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            } catch (UnsupportedOperationException e) {
+                return -1;
+            }
+        }
+    }
+}
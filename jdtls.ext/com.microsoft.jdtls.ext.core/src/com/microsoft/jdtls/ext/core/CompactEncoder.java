@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.microsoft.jdtls.ext.core.model.CompactPackageData;
+import com.microsoft.jdtls.ext.core.model.ContainerNode;
+import com.microsoft.jdtls.ext.core.model.PackageNode;
+import com.microsoft.jdtls.ext.core.model.PackageRootNode;
+
+/**
+ * Encodes a list of nodes into a {@link CompactPackageData}. An encoder is
+ * used for a single response, since the string table and the front coding
+ * depend on all the nodes of the response.
+ */
+final class CompactEncoder {
+
+    private final CompactPackageData data = new CompactPackageData();
+    private final Map<String, Integer> stringIndexes = new HashMap<>();
+    private final Map<Object, Integer> valueIndexes = new HashMap<>();
+    private String previousPath = "";
+    private String previousUri = "";
+    private String previousHandlerIdentifier = "";
+
+    private CompactEncoder() {
+    }
+
+    static CompactPackageData encode(List<PackageNode> nodes) {
+        CompactEncoder encoder = new CompactEncoder();
+        encoder.data.nodes = encoder.encodeNodes(nodes);
+        return encoder.data;
+    }
+
+    private List<CompactPackageData.Node> encodeNodes(List<PackageNode> nodes) {
+        List<CompactPackageData.Node> result = new ArrayList<>(nodes.size());
+        for (PackageNode node : nodes) {
+            result.add(encodeNode(node));
+        }
+        return result;
+    }
+
+    /**
+     * Encode the node, then its children, in the order expected by the client
+     * to decode the front coded values.
+     */
+    private CompactPackageData.Node encodeNode(PackageNode node) {
+        CompactPackageData.Node result = new CompactPackageData.Node();
+        result.k = node.getKind().getValue();
+        result.n = indexOf(node.getName());
+        result.d = indexOf(node.getDisplayName());
+        result.mn = indexOf(node.getModuleName());
+        if (node.getPath() != null) {
+            result.p = frontCode(previousPath, node.getPath());
+            previousPath = node.getPath();
+        }
+        if (node.getUri() != null) {
+            result.u = frontCode(previousUri, node.getUri());
+            previousUri = node.getUri();
+        }
+        if (node.getHandlerIdentifier() != null) {
+            result.h = frontCode(previousHandlerIdentifier, node.getHandlerIdentifier());
+            previousHandlerIdentifier = node.getHandlerIdentifier();
+        }
+        if (node.getMetaData() != null) {
+            result.m = new int[node.getMetaData().size() * 2];
+            int i = 0;
+            for (Map.Entry<String, Object> entry : node.getMetaData().entrySet()) {
+                result.m[i++] = indexOf(entry.getKey());
+                result.m[i++] = valueIndexOf(entry.getValue());
+            }
+        }
+        if (node instanceof PackageRootNode) {
+            result.e = ((PackageRootNode) node).getEntryType();
+        } else if (node instanceof ContainerNode) {
+            result.e = ((ContainerNode) node).getEntryType();
+        }
+        if (node.getChildren() != null) {
+            result.c = encodeNodes(node.getChildren());
+        }
+        return result;
+    }
+
+    private Integer indexOf(String value) {
+        if (value == null) {
+            return null;
+        }
+        return stringIndexes.computeIfAbsent(value, key -> {
+            data.strings.add(key);
+            return data.strings.size() - 1;
+        });
+    }
+
+    private int valueIndexOf(Object value) {
+        return valueIndexes.computeIfAbsent(value, key -> {
+            data.values.add(key);
+            return data.values.size() - 1;
+        });
+    }
+
+    private static List<Object> frontCode(String previous, String value) {
+        int length = Math.min(previous.length(), value.length());
+        int shared = 0;
+        while (shared < length && previous.charAt(shared) == value.charAt(shared)) {
+            shared++;
+        }
+        return Arrays.asList(shared, value.substring(shared));
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
+
+/**
+ * A progress monitor which is also cancelled once the time budget of the
+ * request is spent.
+ *
+ * Since it is a monitor, it is threaded through the command pipelines, and
+ * through the JDT and resources APIs they call, like the original monitor,
+ * and every existing cancellation check also stops the work when the budget
+ * is exceeded. Nested deadlines never outlive their parent.
+ */
+public final class Deadline extends ProgressMonitorWrapper {
+
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private final long startNanos;
+    private final long deadlineNanos;
+    private volatile boolean expired;
+
+    private Deadline(IProgressMonitor monitor, long startNanos, long deadlineNanos) {
+        super(monitor);
+        this.startNanos = startNanos;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Get a deadline only bound to the cancellation of the given monitor.
+     */
+    public static Deadline of(IProgressMonitor monitor) {
+        if (monitor instanceof Deadline) {
+            return (Deadline) monitor;
+        }
+        return new Deadline(monitor == null ? new NullProgressMonitor() : monitor, System.nanoTime(), NO_DEADLINE);
+    }
+
+    /**
+     * Get a deadline expiring after the given budget, or when the given monitor
+     * is cancelled, whichever comes first.
+     *
+     * @param budgetMillis the time budget, no budget if it is not positive
+     */
+    public static Deadline of(IProgressMonitor monitor, long budgetMillis) {
+        Deadline parent = of(monitor);
+        if (budgetMillis <= 0) {
+            return parent;
+        }
+        long now = System.nanoTime();
+        long deadlineNanos = now + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        if (parent.deadlineNanos != NO_DEADLINE && parent.deadlineNanos - deadlineNanos < 0) {
+            deadlineNanos = parent.deadlineNanos;
+        }
+        return new Deadline(parent, now, deadlineNanos);
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return super.isCanceled() || isExpired();
+    }
+
+    /**
+     * Whether the time budget is spent. Unlike {@link #isCanceled()}, it does not
+     * report the cancellation of the wrapped monitor.
+     */
+    public boolean isExpired() {
+        if (expired) {
+            return true;
+        }
+        if (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0) {
+            expired = true;
+        }
+        return expired;
+    }
+
+    /**
+     * @throws OperationCanceledException if the deadline is cancelled or expired
+     */
+    public void checkCanceled() {
+        if (isCanceled()) {
+            throw new OperationCanceledException();
+        }
+    }
+
+    public long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return the remaining time in milliseconds, or {@link Long#MAX_VALUE} if
+     *         there is no time budget
+     */
+    public long remainingMillis() {
+        if (deadlineNanos == NO_DEADLINE) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+}
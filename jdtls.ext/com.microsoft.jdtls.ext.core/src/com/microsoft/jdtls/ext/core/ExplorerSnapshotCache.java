@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+
+import com.microsoft.jdtls.ext.core.model.PackageNode;
+
+/**
+ * In-memory snapshot of the children computed by {@link PackageCommand#getChildren}.
+ *
+ * Each snapshot is keyed by the query and remembers the workspace path its
+ * content depends on (the project, the package root, the package or the
+ * folder) and the project it belongs to. Resource and Java element deltas
+ * invalidate the snapshots whose path is an ancestor or a descendant of a
+ * changed resource, and all the snapshots of a project whose classpath
+ * changed. Siblings of a changed resource are kept. A content change of a
+ * compilation unit only invalidates the snapshots of its package, since it
+ * can add, remove or rename the primary type shown for it.
+ */
+final class ExplorerSnapshotCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    // Resource changes that can change the children of a node. Marker changes never do, content changes only for compilation units.
+    private static final int STRUCTURAL_CHANGE_FLAGS = IResourceDelta.OPEN | IResourceDelta.TYPE | IResourceDelta.REPLACED
+            | IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO | IResourceDelta.DESCRIPTION;
+
+    private static final int PROJECT_CHANGE_FLAGS = IJavaElementDelta.F_CLASSPATH_CHANGED
+            | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED;
+
+    private static final Map<String, Snapshot> snapshots = new LinkedHashMap<String, Snapshot>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // Bumped by every invalidation, so that a result computed across an invalidation is never stored
+    private static long generation;
+
+    private static volatile boolean listenersRegistered = false;
+
+    private static final Object listenerLock = new Object();
+
+    private static final class Snapshot {
+        final List<PackageNode> nodes;
+        final IPath scope;
+        final IPath projectPath;
+
+        Snapshot(List<PackageNode> nodes, IPath scope, IPath projectPath) {
+            this.nodes = nodes;
+            this.scope = scope;
+            this.projectPath = projectPath;
+        }
+    }
+
+    private static final IElementChangedListener javaElementListener = new IElementChangedListener() {
+        @Override
+        public void elementChanged(ElementChangedEvent event) {
+            processDelta(event.getDelta());
+        }
+
+        private void processDelta(IJavaElementDelta delta) {
+            IJavaElement element = delta.getElement();
+            int flags = delta.getFlags();
+            if (element instanceof IJavaProject && (flags & PROJECT_CHANGE_FLAGS) != 0) {
+                invalidateProject(((IJavaProject) element).getProject().getFullPath());
+            } else if (element instanceof IPackageFragmentRoot && (flags & IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED) != 0) {
+                invalidate(element.getPath());
+            }
+
+            for (IJavaElementDelta child : delta.getAffectedChildren()) {
+                processDelta(child);
+            }
+        }
+    };
+
+    private static final IResourceChangeListener resourceListener = new IResourceChangeListener() {
+        @Override
+        public void resourceChanged(IResourceChangeEvent event) {
+            IResourceDelta delta = event.getDelta();
+            if (delta == null) {
+                return;
+            }
+
+            try {
+                delta.accept(child -> {
+                    IResource resource = child.getResource();
+                    if (resource.getType() == IResource.ROOT) {
+                        return true;
+                    }
+                    int kind = child.getKind();
+                    if (kind == IResourceDelta.ADDED || kind == IResourceDelta.REMOVED
+                            || (child.getFlags() & STRUCTURAL_CHANGE_FLAGS) != 0) {
+                        if (resource.getType() == IResource.PROJECT) {
+                            invalidateProject(resource.getFullPath());
+                        } else {
+                            invalidate(resource.getFullPath());
+                        }
+                        // the snapshots of the descendants are invalidated as well
+                        return false;
+                    }
+                    if ((child.getFlags() & IResourceDelta.CONTENT) != 0 && resource.getType() == IResource.FILE
+                            && JavaCore.isJavaLikeFileName(resource.getName())) {
+                        invalidateScope(resource.getParent().getFullPath());
+                    }
+                    return true;
+                });
+            } catch (CoreException e) {
+                JdtlsExtActivator.logException("Error processing resource delta for the explorer cache", e);
+            }
+        }
+    };
+
+    private ExplorerSnapshotCache() {
+    }
+
+    /**
+     * Get a copy of the cached children for the query, or <code>null</code> if
+     * they have to be computed. Queries asking to sync changed paths are never
+     * served from the cache.
+     */
+    static List<PackageNode> get(PackageParams query) {
+        if (isBypassed(query)) {
+            return null;
+        }
+        ensureListenersRegistered();
+        synchronized (snapshots) {
+            Snapshot snapshot = snapshots.get(getKey(query));
+            return snapshot == null ? null : new ArrayList<>(snapshot.nodes);
+        }
+    }
+
+    /**
+     * @return the token to pass to {@link #put} once the children are computed
+     */
+    static long begin() {
+        ensureListenersRegistered();
+        synchronized (snapshots) {
+            return generation;
+        }
+    }
+
+    /**
+     * Store the children computed for the query, unless something has been
+     * invalidated since {@link #begin()} was called.
+     */
+    static void put(PackageParams query, long token, List<PackageNode> nodes) {
+        if (nodes == null) {
+            return;
+        }
+        IPath projectPath = getProjectPath(query);
+        IPath scope = getScope(query);
+        if (projectPath == null || scope == null) {
+            return;
+        }
+        synchronized (snapshots) {
+            if (token == generation) {
+                snapshots.put(getKey(query), new Snapshot(new ArrayList<>(nodes), scope, projectPath));
+            }
+        }
+    }
+
+    static void clear() {
+        synchronized (snapshots) {
+            generation++;
+            snapshots.clear();
+        }
+    }
+
+    static void shutdown() {
+        synchronized (listenerLock) {
+            if (listenersRegistered) {
+                JavaCore.removeElementChangedListener(javaElementListener);
+                ResourcesPlugin.getWorkspace().removeResourceChangeListener(resourceListener);
+                listenersRegistered = false;
+            }
+        }
+        clear();
+    }
+
+    private static void invalidate(IPath path) {
+        synchronized (snapshots) {
+            generation++;
+            Iterator<Snapshot> iterator = snapshots.values().iterator();
+            while (iterator.hasNext()) {
+                IPath scope = iterator.next().scope;
+                if (scope.isPrefixOf(path) || path.isPrefixOf(scope)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidate the snapshots of the given path only, not the ones of its
+     * ancestors or descendants.
+     */
+    private static void invalidateScope(IPath path) {
+        synchronized (snapshots) {
+            generation++;
+            snapshots.values().removeIf(snapshot -> snapshot.scope.equals(path));
+        }
+    }
+
+    private static void invalidateProject(IPath projectPath) {
+        synchronized (snapshots) {
+            generation++;
+            Iterator<Snapshot> iterator = snapshots.values().iterator();
+            while (iterator.hasNext()) {
+                Snapshot snapshot = iterator.next();
+                if (projectPath.equals(snapshot.projectPath) || projectPath.isPrefixOf(snapshot.scope)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private static boolean isBypassed(PackageParams query) {
+        return query.getKind() == null || (query.getSyncPaths() != null && !query.getSyncPaths().isEmpty());
+    }
+
+    private static String getKey(PackageParams query) {
+        return query.getKind() + "|" + query.getProjectUri() + "|" + query.getHandlerIdentifier() + "|" + query.getPath()
+                + "|" + query.getRootPath() + "|" + query.isHierarchicalView() + "|" + query.getOffset() + "|" + query.getLimit();
+    }
+
+    private static IPath getProjectPath(PackageParams query) {
+        if (StringUtils.isBlank(query.getProjectUri())) {
+            return null;
+        }
+        try {
+            IProject project = PackageCommand.getProject(query.getProjectUri());
+            return project == null ? null : project.getFullPath();
+        } catch (IllegalArgumentException e) {
+            // the project does not exist anymore
+            return null;
+        }
+    }
+
+    /**
+     * Get the path of the workspace resource, or of the archive, which the
+     * children of the queried node are read from.
+     */
+    private static IPath getScope(PackageParams query) {
+        switch (query.getKind()) {
+            case PROJECT:
+            case CONTAINER:
+                return getProjectPath(query);
+            case PACKAGEROOT: {
+                IPackageFragmentRoot root = PackageCommand.getPackageFragmentRootFromQuery(query);
+                return root == null ? null : root.getPath();
+            }
+            case PACKAGE: {
+                IJavaElement element = JavaCore.create(query.getHandlerIdentifier());
+                return element == null ? null : element.getPath();
+            }
+            case FOLDER: {
+                // folders inside an archive are read from the archive
+                IPackageFragmentRoot root = PackageCommand.getPackageFragmentRootFromQuery(query);
+                if (root != null && root.isArchive()) {
+                    return root.getPath();
+                }
+                return StringUtils.isBlank(query.getPath()) ? null : Path.fromPortableString(query.getPath());
+            }
+            default:
+                return null;
+        }
+    }
+
+    private static void ensureListenersRegistered() {
+        if (!listenersRegistered) {
+            synchronized (listenerLock) {
+                if (!listenersRegistered) {
+                    try {
+                        JavaCore.addElementChangedListener(javaElementListener, ElementChangedEvent.POST_CHANGE);
+                        ResourcesPlugin.getWorkspace().addResourceChangeListener(resourceListener, IResourceChangeEvent.POST_CHANGE);
+                        listenersRegistered = true;
+                    } catch (Exception e) {
+                        JdtlsExtActivator.logException("Failed to register the explorer cache listeners", e);
+                    }
+                }
+            }
+        }
+    }
+}
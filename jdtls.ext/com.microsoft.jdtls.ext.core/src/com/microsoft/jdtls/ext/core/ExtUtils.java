@@ -28,7 +28,6 @@ import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.internal.core.JarEntryDirectory;
 import org.eclipse.jdt.internal.core.JarEntryFile;
 import org.eclipse.jdt.launching.IVMInstall;
 import org.eclipse.jdt.launching.JavaRuntime;
@@ -68,24 +67,8 @@ public final class ExtUtils {
                 }
             }
         }
-        Object[] resources = packageRoot.getNonJavaResources();
-
-        for (Object resource : resources) {
-            if (resource instanceof JarEntryFile) {
-                JarEntryFile file = (JarEntryFile) resource;
-                if (file.getFullPath().toPortableString().equals(path)) {
-                    return file;
-                }
-            }
-            if (resource instanceof JarEntryDirectory) {
-                JarEntryDirectory directory = (JarEntryDirectory) resource;
-                JarEntryFile file = findFileInJar(directory, path);
-                if (file != null) {
-                    return file;
-                }
-            }
-        }
-        return null;
+        IJarEntryResource entry = JarEntryIndex.get(packageRoot).find(path);
+        return entry instanceof JarEntryFile ? (JarEntryFile) entry : null;
     }
 
     public static IJarEntryResource getJarEntryResource(URI uri) throws CoreException {
@@ -129,19 +112,4 @@ public final class ExtUtils {
                 return container.getPath().toFile().toURI();
         }
     }
-
-    private static JarEntryFile findFileInJar(JarEntryDirectory directory, String path) {
-        for (IJarEntryResource child : directory.getChildren()) {
-            if (child instanceof JarEntryFile && child.getFullPath().toPortableString().equals(path)) {
-                return (JarEntryFile) child;
-            }
-            if (child instanceof JarEntryDirectory) {
-                JarEntryFile file = findFileInJar((JarEntryDirectory) child, path);
-                if (file != null) {
-                    return file;
-                }
-            }
-        }
-        return null;
-    }
 }
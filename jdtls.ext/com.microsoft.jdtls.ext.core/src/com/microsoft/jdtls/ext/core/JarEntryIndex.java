@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IJarEntryResource;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Index of the non-Java entries of a jar, i.e. the entries outside of the
+ * packages such as <code>META-INF</code>, by their full path.
+ *
+ * Finding the children of a jar folder or the entry of a jar URI used to walk
+ * the entry tree from the top folders for every lookup. The index is built
+ * once per jar and kept as long as the modification time and the size of the
+ * jar file are the same.
+ */
+final class JarEntryIndex {
+
+    private static final int MAX_ENTRIES = 64;
+
+    // Keyed by the handle identifier of the package root
+    private static final Map<String, JarEntryIndex> indexes = new LinkedHashMap<String, JarEntryIndex>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JarEntryIndex> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private final String stamp;
+
+    private final Map<String, IJarEntryResource> entries = new HashMap<>();
+
+    private JarEntryIndex(String stamp) {
+        this.stamp = stamp;
+    }
+
+    /**
+     * Get the index of the binary package root, built on the first call and
+     * after the jar file changed.
+     */
+    static JarEntryIndex get(IPackageFragmentRoot root) throws JavaModelException {
+        String key = root.getHandleIdentifier();
+        String stamp = getStamp(root);
+        synchronized (indexes) {
+            JarEntryIndex index = indexes.get(key);
+            if (index != null && index.stamp.equals(stamp)) {
+                return index;
+            }
+        }
+
+        JarEntryIndex index = new JarEntryIndex(stamp);
+        Deque<IJarEntryResource> queue = new ArrayDeque<>();
+        for (Object resource : root.getNonJavaResources()) {
+            if (resource instanceof IJarEntryResource) {
+                queue.add((IJarEntryResource) resource);
+            }
+        }
+        while (!queue.isEmpty()) {
+            IJarEntryResource entry = queue.poll();
+            index.entries.put(entry.getFullPath().toPortableString(), entry);
+            if (!entry.isFile()) {
+                for (IJarEntryResource child : entry.getChildren()) {
+                    queue.add(child);
+                }
+            }
+        }
+        synchronized (indexes) {
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    /**
+     * @return the entry of the full path, or <code>null</code> if there is none
+     */
+    IJarEntryResource find(String path) {
+        return entries.get(path);
+    }
+
+    private static String getStamp(IPackageFragmentRoot root) {
+        IResource resource = root.getResource();
+        IPath location = resource != null ? resource.getLocation() : root.getPath();
+        if (location == null) {
+            return "";
+        }
+        File file = location.toFile();
+        return file.lastModified() + ":" + file.length();
+    }
+
+    static void clear() {
+        synchronized (indexes) {
+            indexes.clear();
+        }
+    }
+}
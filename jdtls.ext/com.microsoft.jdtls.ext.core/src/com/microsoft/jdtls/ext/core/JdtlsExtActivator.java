@@ -22,6 +22,8 @@ public class JdtlsExtActivator implements BundleActivator {
 
     public static final String PLUGIN_ID = "org.eclipse.jdtls.ext.core";
 
+    public static final String CLEAR_CACHES_COMMAND_ID = "java.project.clearCaches";
+
     private static BundleContext context;
 
     static BundleContext getContext() {
@@ -31,13 +33,35 @@ public class JdtlsExtActivator implements BundleActivator {
     @Override
     public void start(BundleContext bundleContext) throws Exception {
         JdtlsExtActivator.context = bundleContext;
+        CommandMetrics.startDumpJob(Platform.getStateLocation(bundleContext.getBundle()));
     }
 
     @Override
     public void stop(BundleContext bundleContext) throws Exception {
+        CommandMetrics.stopDumpJob();
+        CommandExecutor.shutdown();
+        TreeDeltaPublisher.shutdown();
+        SourceRootWatcher.shutdown();
+        PackageTreeCache.shutdown();
+        ProjectListCache.shutdown();
+        ExplorerSnapshotCache.shutdown();
         JdtlsExtActivator.context = null;
     }
 
+    /**
+     * Drop the data cached by the delegate commands, so that the next calls
+     * compute everything again, e.g. when the user refreshes the explorer, or
+     * to measure them without the caches.
+     */
+    public static void clearCaches() {
+        ExplorerSnapshotCache.clear();
+        ProjectListCache.clear();
+        ProjectNodeCache.clear();
+        PackageTreeCache.clear();
+        JarEntryIndex.clear();
+        RefreshStamps.clear();
+    }
+
     public static void log(IStatus status) {
         if (context != null) {
             Platform.getLog(context.getBundle()).log(status);
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.microsoft.jdtls.ext.core.model.PackageNode;
+
+/**
+ * The fields of the nodes requested by a client which does not need all of
+ * them, e.g. <code>{ "fields": ["uri"], "metaDataKeys": ["TypeKind"] }</code>.
+ *
+ * The name and the kind of the nodes, and the entry kind of the package roots
+ * and the containers, are always returned. The other fields are
+ * <code>displayName</code>, <code>moduleName</code>, <code>path</code>,
+ * <code>handlerIdentifier</code>, <code>uri</code> and <code>metaData</code>
+ * for all the metadata. Selected metadata can be requested by their keys
+ * instead.
+ */
+public class NodeProjection {
+
+    public static final String DISPLAY_NAME = "displayName";
+    public static final String MODULE_NAME = "moduleName";
+    public static final String PATH = "path";
+    public static final String HANDLER_IDENTIFIER = "handlerIdentifier";
+    public static final String URI = "uri";
+    public static final String META_DATA = "metaData";
+
+    private List<String> fields;
+
+    private List<String> metaDataKeys;
+
+    public NodeProjection() {
+    }
+
+    public List<String> getFields() {
+        return fields;
+    }
+
+    public void setFields(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public List<String> getMetaDataKeys() {
+        return metaDataKeys;
+    }
+
+    public void setMetaDataKeys(List<String> metaDataKeys) {
+        this.metaDataKeys = metaDataKeys;
+    }
+
+    /**
+     * Whether the field is requested by the projection, all of them are when
+     * there is no projection. {@link #META_DATA} is requested when some
+     * metadata keys are.
+     */
+    public static boolean isRequested(NodeProjection projection, String field) {
+        if (projection == null) {
+            return true;
+        }
+        if (META_DATA.equals(field) && projection.metaDataKeys != null && !projection.metaDataKeys.isEmpty()) {
+            return true;
+        }
+        return projection.has(field);
+    }
+
+    /**
+     * Get copies of the nodes and their children with the requested fields only.
+     * The given nodes are not changed, since they may be cached.
+     */
+    public List<PackageNode> apply(List<PackageNode> nodes) {
+        if (nodes == null) {
+            return null;
+        }
+        List<PackageNode> result = new ArrayList<>(nodes.size());
+        for (PackageNode node : nodes) {
+            result.add(apply(node));
+        }
+        return result;
+    }
+
+    private PackageNode apply(PackageNode node) {
+        PackageNode result = node.copy();
+        if (!has(DISPLAY_NAME)) {
+            result.setDisplayName(null);
+        }
+        if (!has(MODULE_NAME)) {
+            result.setModuleName(null);
+        }
+        if (!has(PATH)) {
+            result.setPath(null);
+        }
+        if (!has(HANDLER_IDENTIFIER)) {
+            result.setHandlerIdentifier(null);
+        }
+        if (!has(URI)) {
+            result.setUri(null);
+        }
+        result.setMetaData(projectMetaData(node.getMetaData()));
+        result.setChildren(apply(node.getChildren()));
+        return result;
+    }
+
+    private Map<String, Object> projectMetaData(Map<String, Object> metaData) {
+        if (metaData == null || has(META_DATA)) {
+            return metaData;
+        }
+        if (metaDataKeys == null || metaDataKeys.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> result = new HashMap<>();
+        for (String key : metaDataKeys) {
+            if (metaData.containsKey(key)) {
+                result.put(key, metaData.get(key));
+            }
+        }
+        return result.isEmpty() ? null : result;
+    }
+
+    private boolean has(String field) {
+        return fields != null && fields.contains(field);
+    }
+}
@@ -14,8 +14,8 @@ import java.net.URI;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumMap;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -23,6 +23,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.StringUtils;
@@ -56,26 +57,27 @@ import org.eclipse.jdt.internal.core.JarEntryFile;
 import org.eclipse.jdt.internal.core.JarEntryResource;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
-import org.eclipse.lsp4j.jsonrpc.json.adapters.CollectionTypeAdapter;
-import org.eclipse.lsp4j.jsonrpc.json.adapters.EnumTypeAdapter;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.microsoft.jdtls.ext.core.jfr.Tracer;
+import com.microsoft.jdtls.ext.core.jfr.Tracer.Span;
+import com.microsoft.jdtls.ext.core.model.CompactPackageData;
 import com.microsoft.jdtls.ext.core.model.NodeKind;
 import com.microsoft.jdtls.ext.core.model.PackageNode;
 import com.microsoft.jdtls.ext.core.model.PackageRootNode;
-import com.microsoft.jdtls.ext.core.model.Trie;
-import com.microsoft.jdtls.ext.core.model.TrieNode;
 import com.microsoft.jdtls.ext.core.parser.JavaResourceVisitor;
 import com.microsoft.jdtls.ext.core.parser.ResourceSet;
 import com.microsoft.jdtls.ext.core.parser.ResourceVisitor;
 
 public class PackageCommand {
 
-    private static final Gson gson = new GsonBuilder()
-            .registerTypeAdapterFactory(new CollectionTypeAdapter.Factory())
-            .registerTypeAdapterFactory(new EnumTypeAdapter.Factory())
-            .create();
+    // Number of children above which the children are paged even if the query does not ask for it
+    private static final int PAGING_THRESHOLD = 2000;
+
+    // Number of children in a page when the query does not give the limit
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+
+    // Maximum number of nodes returned below the first level when the budget is not given
+    private static final int DEFAULT_PREFETCH_NODE_BUDGET = 1000;
 
     private static final Map<NodeKind, BiFunction<PackageParams, IProgressMonitor, List<PackageNode>>> commands;
 
@@ -103,12 +105,229 @@ public class PackageCommand {
         if (arguments == null || arguments.size() < 1) {
             throw new IllegalArgumentException("Should have at least one argument for getChildren");
         }
-        PackageParams params = gson.fromJson(gson.toJson(arguments.get(0)), PackageParams.class);
+        return getChildrenToDepth(CommandArguments.get(arguments, 0, PackageParams.class), pm);
+    }
+
+    /**
+     * Get the children as {@link #getChildren(List, IProgressMonitor)}, with the
+     * fields requested by {@link PackageParams#getProjection()} only, encoded
+     * as a {@link CompactPackageData} if the client asks for it with
+     * {@link PackageParams#isCompact()}.
+     */
+    public static Object getPackageData(List<Object> arguments, IProgressMonitor pm) throws CoreException {
+        if (arguments == null || arguments.size() < 1) {
+            throw new IllegalArgumentException("Should have at least one argument for getPackageData");
+        }
+        PackageParams params = CommandArguments.get(arguments, 0, PackageParams.class);
+        List<PackageNode> result = getChildrenToDepth(params, pm);
+        if (params.getProjection() != null) {
+            result = params.getProjection().apply(result);
+        }
+        if (params.isCompact()) {
+            return CompactEncoder.encode(result);
+        }
+        return result;
+    }
+
+    private static List<PackageNode> getChildrenToDepth(PackageParams params, IProgressMonitor pm) throws CoreException {
+        List<PackageNode> result = getChildren(params, pm);
+        if (params.getDepth() > 1 && !pm.isCanceled()) {
+            result = prefetchChildren(params, result, pm);
+        }
+        return result;
+    }
+
+    private static List<PackageNode> getChildren(PackageParams params, IProgressMonitor pm) throws CoreException {
+        BiFunction<PackageParams, IProgressMonitor, List<PackageNode>> loader = getLoader(params);
+        // the changes found on disk by the refresh invalidate the outdated snapshots before the lookup
+        syncResources(params, pm);
+        List<PackageNode> result = ExplorerSnapshotCache.get(params);
+        if (result != null) {
+            return result;
+        }
+
+        long token = ExplorerSnapshotCache.begin();
+        result = loader.apply(params, pm);
+        if (!pm.isCanceled()) {
+            PartialResultReporter reporter = params.getPartialResultReporter(pm);
+            if (reporter == null || reporter.getReportedNodes().isEmpty() || result == null) {
+                ExplorerSnapshotCache.put(params, token, result);
+            } else {
+                // the snapshot holds all the children, including the ones pushed as partial results
+                List<PackageNode> children = new ArrayList<>(reporter.getReportedNodes());
+                children.addAll(result);
+                ExplorerSnapshotCache.put(params, token, children);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the children without going through the snapshot cache, for the
+     * callers which visit each node once, e.g. {@link TreeExporter}. The
+     * resources are not refreshed from the disk, so that the children are read
+     * from the model as it is, without invalidating the cached package trees
+     * and snapshots.
+     */
+    static List<PackageNode> loadChildren(PackageParams params, IProgressMonitor pm) throws CoreException {
+        return getLoader(params).apply(params, pm);
+    }
+
+    /**
+     * Refresh the resources which the children of the queried node are read
+     * from, so that the changes made on disk out of band are listed. It runs
+     * before the children are looked up in the snapshot cache, since a cached
+     * result is only valid once the workspace is in sync with the disk.
+     */
+    private static void syncResources(PackageParams query, IProgressMonitor pm) {
+        switch (query.getKind()) {
+            case PROJECT: {
+                IProject project = getProject(query.getProjectUri());
+                if (project != null && ProjectUtils.isJavaProject(project)) {
+                    refreshIfChanged(project, pm);
+                }
+                break;
+            }
+            case PACKAGEROOT: {
+                IPackageFragmentRoot root = getPackageFragmentRootFromQuery(query);
+                if (root != null) {
+                    try {
+                        syncPackageFragmentRoot(root, query.getSyncPaths(), pm);
+                    } catch (CoreException e) {
+                        JdtlsExtActivator.logException("Problem refresh package root ", e);
+                    }
+                }
+                break;
+            }
+            case PACKAGE: {
+                IJavaElement element = JavaCore.create(query.getHandlerIdentifier());
+                if (element instanceof IPackageFragment) {
+                    refreshIfChanged(element.getResource(), pm);
+                }
+                break;
+            }
+            case FOLDER: {
+                // the folders of the package roots are refreshed with their root
+                if (getPackageFragmentRootFromQuery(query) == null) {
+                    IFolder folder = ResourcesPlugin.getWorkspace().getRoot().getFolder(Path.fromPortableString(query.getPath()));
+                    if (folder.exists()) {
+                        refreshIfChanged(folder, pm);
+                    }
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static BiFunction<PackageParams, IProgressMonitor, List<PackageNode>> getLoader(PackageParams params) throws CoreException {
         BiFunction<PackageParams, IProgressMonitor, List<PackageNode>> loader = commands.get(params.getKind());
         if (loader == null) {
             throw new CoreException(new Status(IStatus.ERROR, JdtlsExtActivator.PLUGIN_ID, String.format("Unknown classpath item type: %s", params.getKind())));
         }
-        List<PackageNode> result = loader.apply(params, pm);
+        return loader;
+    }
+
+    /**
+     * Set the children of the given nodes, level by level, down to the
+     * requested depth or until the node budget is spent. Only the packages of
+     * the source roots are prefetched, since the containers, the libraries and
+     * the folders are expensive to list and seldom expanded. The nodes are
+     * copied before their children are set, since they may be shared with the
+     * snapshot cache.
+     */
+    private static List<PackageNode> prefetchChildren(PackageParams params, List<PackageNode> nodes, IProgressMonitor pm) throws CoreException {
+        int budget = params.getNodeBudget() > 0 ? params.getNodeBudget() : DEFAULT_PREFETCH_NODE_BUDGET;
+        List<PackageNode> result = copyNodes(nodes);
+        List<PackageParams> levelQueries = Collections.nCopies(result.size(), params);
+        List<PackageNode> level = result;
+        for (int depth = 1; depth < params.getDepth() && !level.isEmpty(); depth++) {
+            List<PackageNode> nextLevel = new ArrayList<>();
+            List<PackageParams> nextLevelQueries = new ArrayList<>();
+            for (int i = 0; i < level.size(); i++) {
+                PackageNode node = level.get(i);
+                if (!isPrefetched(node)) {
+                    continue;
+                }
+                PackageParams query = createChildQuery(levelQueries.get(i), node);
+                if (query == null) {
+                    continue;
+                }
+                if (budget <= 0 || pm.isCanceled()) {
+                    return result;
+                }
+                List<PackageNode> children = copyNodes(getChildren(query, pm));
+                if (children.size() > budget) {
+                    // the remaining nodes are queried when they are expanded
+                    return result;
+                }
+                budget -= children.size();
+                node.setChildren(children);
+                nextLevel.addAll(children);
+                nextLevelQueries.addAll(Collections.nCopies(children.size(), query));
+            }
+            level = nextLevel;
+            levelQueries = nextLevelQueries;
+        }
+        return result;
+    }
+
+    private static boolean isPrefetched(PackageNode node) {
+        if (node instanceof PackageRootNode) {
+            return ((PackageRootNode) node).getEntryType() == IPackageFragmentRoot.K_SOURCE;
+        }
+        return node.getKind() == NodeKind.PACKAGE;
+    }
+
+    /**
+     * Get the query of the children of a node, in the same way as the client
+     * queries them, or <code>null</code> if they are not prefetched.
+     *
+     * @param parentQuery the query which returned the node
+     */
+    static PackageParams createChildQuery(PackageParams parentQuery, PackageNode node) {
+        PackageParams query;
+        switch (node.getKind()) {
+            case PROJECT:
+                query = new PackageParams(NodeKind.PROJECT, node.getUri());
+                break;
+            case CONTAINER:
+                query = new PackageParams(NodeKind.CONTAINER, parentQuery.getProjectUri(), node.getPath());
+                break;
+            case PACKAGEROOT:
+                query = new PackageParams(NodeKind.PACKAGEROOT, parentQuery.getProjectUri(), null, node.getHandlerIdentifier());
+                query.setRootPath(node.getPath());
+                break;
+            case PACKAGE:
+                // the hierarchical packages are built by the client from the whole package root
+                if (parentQuery.isHierarchicalView()) {
+                    return null;
+                }
+                query = new PackageParams(NodeKind.PACKAGE, parentQuery.getProjectUri(), node.getName(), node.getHandlerIdentifier());
+                break;
+            case FOLDER:
+                if (parentQuery.getKind() == NodeKind.PACKAGE) {
+                    // the package root is not known
+                    return null;
+                }
+                query = new PackageParams(NodeKind.FOLDER, parentQuery.getProjectUri(), node.getPath(), parentQuery.getHandlerIdentifier());
+                query.setRootPath(parentQuery.getRootPath());
+                break;
+            default:
+                return null;
+        }
+        query.setHierarchicalView(parentQuery.isHierarchicalView());
+        return query;
+    }
+
+    private static List<PackageNode> copyNodes(List<PackageNode> nodes) {
+        List<PackageNode> result = new ArrayList<>(nodes == null ? 0 : nodes.size());
+        if (nodes != null) {
+            for (PackageNode node : nodes) {
+                result.add(node.copy());
+            }
+        }
         return result;
     }
 
@@ -117,7 +336,8 @@ public class PackageCommand {
      *
      * @param arguments
      *            List of the arguments which contain one entry of the target
-     *            compilation unit URI.
+     *            compilation unit URI, and optionally the
+     *            {@link NodeProjection} of the nodes.
      * @return the list of the path
      * @throws CoreException when fails to create node or get resource
      */
@@ -125,7 +345,13 @@ public class PackageCommand {
         if (arguments == null || arguments.size() < 1) {
             throw new IllegalArgumentException("Should have one argument for resolvePath");
         }
-        String typeRootUri = (String) arguments.get(0);
+        String typeRootUri = CommandArguments.getString(arguments, 0);
+        NodeProjection projection = CommandArguments.get(arguments, 1, NodeProjection.class);
+        List<PackageNode> result = resolvePath(typeRootUri, projection);
+        return projection == null ? result : projection.apply(result);
+    }
+
+    private static List<PackageNode> resolvePath(String typeRootUri, NodeProjection projection) throws CoreException {
         List<PackageNode> result = new ArrayList<>();
         URI uri = JDTUtils.toURI(typeRootUri);
         ITypeRoot typeRoot = ExtUtils.JDT_SCHEME.equals(uri.getScheme()) ? JDTUtils.resolveClassFile(uri) : JDTUtils.resolveCompilationUnit(uri);
@@ -145,7 +371,7 @@ public class PackageCommand {
             }
             // for invisible project, removing the '_' link name may cause an empty named package root
             // in this case, we will avoid that 'empty' node from displaying
-            PackageNode pkgRootNode = PackageNode.createNodeForPackageFragmentRoot(pkgRoot);
+            PackageNode pkgRootNode = PackageNode.createNodeForPackageFragmentRoot(pkgRoot, projection);
             if (StringUtils.isNotBlank(pkgRootNode.getName())) {
                 result.add(pkgRootNode);
             }
@@ -158,7 +384,7 @@ public class PackageCommand {
             IPackageFragmentRoot pkgRoot = resource.getPackageFragmentRoot();
             result.add(PackageNode.createNodeForProject(pkgRoot));
             result.add(PackageNode.createNodeForVirtualContainer(resource.getPackageFragmentRoot()));
-            result.add(PackageNode.createNodeForPackageFragmentRoot(pkgRoot));
+            result.add(PackageNode.createNodeForPackageFragmentRoot(pkgRoot, projection));
             if (resource.getParent() instanceof IPackageFragment) {
                 IPackageFragment packageFragment = (IPackageFragment) resource.getParent();
                 if (!packageFragment.isDefaultPackage()) {
@@ -195,7 +421,7 @@ public class PackageCommand {
                     IPackageFragmentRoot pkgRoot = (IPackageFragmentRoot) packageFragment.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
                     // for invisible project, removing the '_' link name may cause an empty named package root
                     // in this case, we will avoid that 'empty' node from displaying
-                    PackageNode pkgRootNode = PackageNode.createNodeForPackageFragmentRoot(pkgRoot);
+                    PackageNode pkgRootNode = PackageNode.createNodeForPackageFragmentRoot(pkgRoot, projection);
                     if (StringUtils.isNotBlank(pkgRootNode.getName())) {
                         result.add(pkgRootNode);
                     }
@@ -270,7 +496,6 @@ public class PackageCommand {
         IJavaProject javaProject = JavaCore.create(project);
         try {
             if (ProjectUtils.isJavaProject(project) && javaProject != null) {
-                refreshLocal(javaProject.getProject(), pm);
                 IClasspathEntry[] references = javaProject.getRawClasspath();
                 for (IClasspathEntry entry : references) {
                     int entryKind = entry.getEntryKind();
@@ -300,8 +525,8 @@ public class PackageCommand {
         }
 
         ResourceSet resourceSet = new ResourceSet(children);
-        ResourceVisitor visitor = new JavaResourceVisitor(javaProject);
-        resourceSet.accept(visitor);
+        ResourceVisitor visitor = createVisitor(javaProject, query, pm);
+        resourceSet.accept(visitor, pm);
         List<PackageNode> result = visitor.getNodes();
 
         // Invisible project will always have the referenced libraries entry
@@ -339,10 +564,77 @@ public class PackageCommand {
             JdtlsExtActivator.logException("Problem load project JAR entries ", e);
         }
 
-        ResourceSet resourceSet = new ResourceSet(children);
-        ResourceVisitor visitor = new JavaResourceVisitor(javaProject);
-        resourceSet.accept(visitor);
-        return visitor.getNodes();
+        return visitChildren(children, javaProject, query, pm);
+    }
+
+    /**
+     * Create the visitor converting the children to nodes. When the client asked
+     * for partial results, the nodes are pushed to it in chunks as soon as they
+     * are created.
+     */
+    private static ResourceVisitor createVisitor(IJavaProject javaProject, PackageParams query, IProgressMonitor pm) {
+        PartialResultReporter reporter = query.getPartialResultReporter(pm);
+        if (reporter != null) {
+            return new JavaResourceVisitor(javaProject, reporter);
+        }
+        return new JavaResourceVisitor(javaProject);
+    }
+
+    private static List<PackageNode> visitChildren(List<Object> children, IJavaProject javaProject, PackageParams query, IProgressMonitor pm) {
+        return visitChildren(children, javaProject, query, UnaryOperator.identity(), pm);
+    }
+
+    /**
+     * Convert the children in the requested page to nodes. The children are
+     * paged when the query has an offset or a limit, or when there are more
+     * than {@link #PAGING_THRESHOLD} of them. The children after the page are
+     * represented by a {@link NodeKind#MORE} node. The pages are taken from the
+     * children before they are filtered by the {@link ResourceSet}, so a page
+     * may return fewer nodes than its limit.
+     *
+     * @param resolver applied to the children in the page before they are converted
+     */
+    private static List<PackageNode> visitChildren(List<Object> children, IJavaProject javaProject, PackageParams query,
+            UnaryOperator<Object> resolver, IProgressMonitor pm) {
+        int total = children.size();
+        int start = 0;
+        int end = total;
+        // the hierarchical packages are built by the client from all the packages of the root
+        boolean paged = !query.isHierarchicalView() && (query.getOffset() > 0 || query.getLimit() > 0 || total > PAGING_THRESHOLD);
+        if (paged) {
+            // sort the children so that the pages are stable
+            children = new ArrayList<>(children);
+            children.sort(Comparator.comparing(PackageCommand::getChildName));
+            start = Math.min(Math.max(0, query.getOffset()), total);
+            int limit = query.getLimit() > 0 ? query.getLimit() : DEFAULT_PAGE_SIZE;
+            end = (int) Math.min((long) start + limit, total);
+        }
+
+        List<Object> page = new ArrayList<>(end - start);
+        for (Object child : children.subList(start, end)) {
+            page.add(resolver.apply(child));
+        }
+        ResourceSet resourceSet = new ResourceSet(page, query.isHierarchicalView());
+        ResourceVisitor visitor = createVisitor(javaProject, query, pm);
+        resourceSet.accept(visitor, pm);
+        List<PackageNode> result = visitor.getNodes();
+        if (end < total) {
+            result.add(PackageNode.createNodeForMoreChildren(end));
+        }
+        return result;
+    }
+
+    private static String getChildName(Object child) {
+        if (child instanceof IJavaElement) {
+            return ((IJavaElement) child).getElementName();
+        } else if (child instanceof IResource) {
+            return ((IResource) child).getName();
+        } else if (child instanceof IJarEntryResource) {
+            return ((IJarEntryResource) child).getName();
+        } else if (child instanceof IClasspathEntry) {
+            return ((IClasspathEntry) child).getPath().toPortableString();
+        }
+        return String.valueOf(child);
     }
 
     private static IPackageFragmentRoot[] findPackageFragmentRoots(IJavaProject javaProject, PackageParams query) {
@@ -372,18 +664,18 @@ public class PackageCommand {
                 throw new CoreException(
                         new Status(IStatus.ERROR, JdtlsExtActivator.PLUGIN_ID, String.format("No package root found for %s", query.getPath())));
             }
-            List<Object> result = getPackageFragmentRootContent(packageRoot, query.isHierarchicalView(), query.getSyncPaths(), pm);
-            ResourceSet resourceSet = new ResourceSet(result, query.isHierarchicalView());
-            ResourceVisitor visitor = new JavaResourceVisitor(packageRoot.getJavaProject());
-            resourceSet.accept(visitor);
-            return visitor.getNodes();
+            List<Object> result;
+            try (Span span = Tracer.phase("packageRootContent", packageRoot.getPath().toString())) {
+                result = listPackageFragmentRootContent(packageRoot, query.isHierarchicalView(), pm);
+            }
+            return visitChildren(result, packageRoot.getJavaProject(), query, pm);
         } catch (CoreException e) {
             JdtlsExtActivator.logException("Problem load project package ", e);
         }
         return Collections.emptyList();
     }
 
-    private static IPackageFragmentRoot getPackageFragmentRootFromQuery(PackageParams query) {
+    static IPackageFragmentRoot getPackageFragmentRootFromQuery(PackageParams query) {
         IPackageFragmentRoot packageRoot = (IPackageFragmentRoot) JavaCore.create(query.getHandlerIdentifier());
         if (packageRoot != null) {
             return packageRoot;
@@ -406,33 +698,39 @@ public class PackageCommand {
 
     private static List<PackageNode> getPackageChildren(PackageParams query, IProgressMonitor pm) {
         IPackageFragment packageFragment = (IPackageFragment) JavaCore.create(query.getHandlerIdentifier());
-        List<Object> children = getChildrenForPackage(packageFragment, pm);
-        ResourceSet resourceSet = new ResourceSet(children);
-        ResourceVisitor visitor = new JavaResourceVisitor(packageFragment.getJavaProject());
-        resourceSet.accept(visitor);
-        return visitor.getNodes();
+        // the primary types are only looked up for the children in the requested page
+        List<Object> children = getChildrenForPackage(packageFragment, false, pm);
+        return visitChildren(children, packageFragment.getJavaProject(), query, PackageCommand::resolvePrimaryType, pm);
     }
 
     public static List<Object> getChildrenForPackage(IPackageFragment packageFragment, IProgressMonitor pm) {
+        if (packageFragment != null) {
+            refreshIfChanged(packageFragment.getResource(), pm);
+        }
+        return getChildrenForPackage(packageFragment, true, pm);
+    }
+
+    /**
+     * @param resolvePrimaryTypes whether the type roots are replaced by their
+     *                            primary type, see {@link #resolvePrimaryType(Object)}
+     */
+    private static List<Object> getChildrenForPackage(IPackageFragment packageFragment, boolean resolvePrimaryTypes, IProgressMonitor pm) {
         if (packageFragment == null) {
             return Collections.emptyList();
         }
 
-        refreshLocal(packageFragment.getResource(), pm);
         List<Object> children = new LinkedList<>();
         try {
             for (IJavaElement element : packageFragment.getChildren()) {
+                if (pm.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
                 if (element instanceof ITypeRoot) {
                     // Filter out the inner class files
                     if (element instanceof IClassFile && element.getElementName().contains("$")) {
                         continue;
                     }
-                    IType primaryType = ((ITypeRoot) element).findPrimaryType();
-                    if (primaryType != null) {
-                        children.add(primaryType);
-                    } else {
-                        children.add(element);
-                    }
+                    children.add(resolvePrimaryTypes ? resolvePrimaryType(element) : element);
                 }
             }
 
@@ -444,6 +742,20 @@ public class PackageCommand {
         return children;
     }
 
+    /**
+     * Get the primary type of a type root, which is shown instead of it in the
+     * explorer, or the given child if it is not a type root with a primary type.
+     */
+    private static Object resolvePrimaryType(Object child) {
+        if (child instanceof ITypeRoot) {
+            IType primaryType = ((ITypeRoot) child).findPrimaryType();
+            if (primaryType != null) {
+                return primaryType;
+            }
+        }
+        return child;
+    }
+
     private static List<PackageNode> getFolderChildren(PackageParams query, IProgressMonitor pm) {
         List<Object> children = new LinkedList<>();
         IJavaProject javaProject = null;
@@ -451,18 +763,9 @@ public class PackageCommand {
             IPackageFragmentRoot packageRoot = getPackageFragmentRootFromQuery(query);
             if (packageRoot != null) {
                 if (packageRoot.getKind() == IPackageFragmentRoot.K_BINARY) {
-                    Object[] resources = packageRoot.getNonJavaResources();
-                    for (Object resource : resources) {
-                        if (pm.isCanceled()) {
-                            throw new OperationCanceledException();
-                        }
-                        if (resource instanceof JarEntryDirectory) {
-                            JarEntryDirectory directory = (JarEntryDirectory) resource;
-                            Object[] directoryChildren = findJarDirectoryChildren(directory, query.getPath());
-                            if (children != null) {
-                                children.addAll(Arrays.asList(directoryChildren));
-                            }
-                        }
+                    IJarEntryResource directory = JarEntryIndex.get(packageRoot).find(query.getPath());
+                    if (directory instanceof JarEntryDirectory) {
+                        children.addAll(Arrays.asList(directory.getChildren()));
                     }
                 } else {
                     javaProject = packageRoot.getJavaProject();
@@ -479,17 +782,12 @@ public class PackageCommand {
                 // general resource folder.
                 IFolder folder = ResourcesPlugin.getWorkspace().getRoot().getFolder(Path.fromPortableString(query.getPath()));
                 if (folder.exists()) {
-                    refreshLocal(folder, pm);
                     children.addAll(Arrays.asList(folder.members()));
                     javaProject = JavaCore.create(folder.getProject());
                 }
             }
 
-            ResourceSet resourceSet = new ResourceSet(children);
-            ResourceVisitor visitor = new JavaResourceVisitor(javaProject);
-            resourceSet.accept(visitor);
-            return visitor.getNodes();
-
+            return visitChildren(children, javaProject, query, pm);
         } catch (CoreException e) {
             JdtlsExtActivator.logException("Problem load project classfile list ", e);
         }
@@ -502,7 +800,7 @@ public class PackageCommand {
      * - com.microsoft.example <-- this common parent package should be returned.
      *   +-- model
      *   +-- handler
-     * Here we use a Trie to find all these packages.
+     * The packages are kept in a Trie per package root, see {@link PackageTreeCache}.
      *
      * @param root the package fragment root
      * @param isHierarchicalView whether the explorer is in hierarchical mode or not
@@ -513,7 +811,16 @@ public class PackageCommand {
     }
 
     public static List<Object> getPackageFragmentRootContent(IPackageFragmentRoot root, boolean isHierarchicalView, List<String> syncPaths, IProgressMonitor pm) throws CoreException {
-        ArrayList<Object> result = new ArrayList<>();
+        syncPackageFragmentRoot(root, syncPaths, pm);
+        return listPackageFragmentRootContent(root, isHierarchicalView, pm);
+    }
+
+    /**
+     * Refresh the package root from the disk.
+     *
+     * @param syncPaths the uris of the resources changed on disk, if the client knows them
+     */
+    private static void syncPackageFragmentRoot(IPackageFragmentRoot root, List<String> syncPaths, IProgressMonitor pm) throws CoreException {
         IResource rootResource = root.getResource();
         if (rootResource instanceof IContainer && rootResource.exists()
                 && root.getKind() == IPackageFragmentRoot.K_SOURCE) {
@@ -528,10 +835,14 @@ public class PackageCommand {
             //
             // On auto-refresh the client passes the changed resource URIs in
             // syncPaths so we only deep-refresh those subtrees instead of the
-            // whole source tree. If any path cannot be resolved to an existing
-            // resource inside this root we conservatively fall back to a full
+            // whole source tree. Otherwise the directories changed on disk
+            // since the last listing are known from the SourceRootWatcher, and
+            // nothing is refreshed when nothing changed. If neither is known,
+            // e.g. without a native watch service or above the watched
+            // directories cap, we conservatively fall back to a full
             // DEPTH_INFINITE refresh so no package is ever missed.
             // See https://github.com/microsoft/vscode-java-dependency/issues/914
+            SourceRootWatcher.Changes changes = SourceRootWatcher.takeChanges((IContainer) rootResource);
             boolean refreshedTargets = false;
             if (syncPaths != null && !syncPaths.isEmpty()) {
                 Set<IResource> targets = new LinkedHashSet<>();
@@ -549,46 +860,45 @@ public class PackageCommand {
                 }
                 if (allResolved && !targets.isEmpty()) {
                     for (IResource target : targets) {
+                        if (pm.isCanceled()) {
+                            throw new OperationCanceledException();
+                        }
                         refreshLocal(target, IResource.DEPTH_INFINITE, pm);
                     }
                     refreshedTargets = true;
                 }
             }
-            if (!refreshedTargets) {
-                refreshLocal(rootResource, IResource.DEPTH_INFINITE, pm);
-            }
-            try {
-                root.close();
-            } catch (JavaModelException e) {
-                JdtlsExtActivator.log(e);
-            }
-        } else {
-            refreshLocal(rootResource, IResource.DEPTH_ONE, pm);
-        }
-        if (isHierarchicalView) {
-            Map<String, IJavaElement> map = new HashMap<>();
-            for (IJavaElement child : root.getChildren()) {
-                map.put(child.getElementName(), child);
-            }
-            Trie<IJavaElement> trie = new Trie<>(map);
-            for (TrieNode<IJavaElement> node : trie.getAllNodes()) {
-                if (node.value == null) {
-                    continue;
+            if (changes != null) {
+                for (IContainer directory : changes.getChangedDirectories()) {
+                    refreshLocal(directory, IResource.DEPTH_ONE, pm);
                 }
-                IPackageFragment fragment = (IPackageFragment) node.value;
-                if (fragment.hasChildren() || fragment.getNonJavaResources().length > 0
-                        || !fragment.hasSubpackages() || node.children.size() > 1) {
-                    result.add(fragment);
+                for (IContainer directory : changes.getCreatedDirectories()) {
+                    refreshLocal(directory, IResource.DEPTH_INFINITE, pm);
                 }
+            } else if (!refreshedTargets) {
+                refreshLocal(rootResource, IResource.DEPTH_INFINITE, pm);
             }
-        } else {
-            for (IJavaElement child : root.getChildren()) {
-                IPackageFragment fragment = (IPackageFragment) child;
-                if (fragment.hasChildren() || fragment.getNonJavaResources().length > 0 || !fragment.hasSubpackages()) {
-                    result.add(fragment);
+            // the cached package fragments only need to be rebuilt when packages may have been added or removed
+            if (refreshedTargets || changes == null || changes.isStructural()) {
+                try {
+                    PackageTreeCache.invalidate(root);
+                    root.close();
+                } catch (JavaModelException e) {
+                    JdtlsExtActivator.log(e);
                 }
             }
+            // a cancelled refresh leaves the changes to the next listing
+            if (changes != null || !refreshedTargets) {
+                SourceRootWatcher.markSynced((IContainer) rootResource, changes);
+            }
+        } else {
+            refreshLocal(rootResource, IResource.DEPTH_ONE, pm);
         }
+    }
+
+    private static List<Object> listPackageFragmentRootContent(IPackageFragmentRoot root, boolean isHierarchicalView, IProgressMonitor pm) throws CoreException {
+        ArrayList<Object> result = new ArrayList<>();
+        result.addAll(PackageTreeCache.getPackages(root, isHierarchicalView, pm));
 
         Object[] nonJavaResources = root.getNonJavaResources();
         Collections.addAll(result, nonJavaResources);
@@ -607,28 +917,6 @@ public class PackageCommand {
         return null;
     }
 
-    private static Object[] findJarDirectoryChildren(JarEntryDirectory directory, String path) {
-        String directoryPath = directory.getFullPath().toPortableString();
-        if (directoryPath.equals(path)) {
-            return directory.getChildren();
-        }
-        if (path.startsWith(directoryPath)) {
-            for (IJarEntryResource resource : directory.getChildren()) {
-                String childrenPath = resource.getFullPath().toPortableString();
-                if (childrenPath.equals(path)) {
-                    return resource.getChildren();
-                }
-                if (path.startsWith(childrenPath) && resource instanceof JarEntryDirectory) {
-                    Object[] result = findJarDirectoryChildren((JarEntryDirectory) resource, path);
-                    if (result != null) {
-                        return result;
-                    }
-                }
-            }
-        }
-        return null;
-    }
-
     public static IProject getProject(String projectUri) {
         IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
         URI uri = JDTUtils.toURI(projectUri);
@@ -657,11 +945,32 @@ public class PackageCommand {
         refreshLocal(resource, IResource.DEPTH_ONE, monitor);
     }
 
+    /**
+     * Refresh the container one level deep, unless it did not change on disk
+     * since its last refresh, see {@link RefreshStamps}.
+     */
+    private static void refreshIfChanged(IResource resource, IProgressMonitor monitor) {
+        if (!(resource instanceof IContainer) || !resource.exists()) {
+            refreshLocal(resource, monitor);
+            return;
+        }
+        IContainer container = (IContainer) resource;
+        if (!RefreshStamps.needsRefresh(container)) {
+            return;
+        }
+        try {
+            refreshLocal(container, monitor);
+        } catch (RuntimeException e) {
+            RefreshStamps.forget(container);
+            throw e;
+        }
+    }
+
     private static void refreshLocal(IResource resource, int depth, IProgressMonitor monitor) {
         if (resource == null || !resource.exists()) {
             return;
         }
-        try {
+        try (Span span = Tracer.refresh(resource, depth)) {
             resource.refreshLocal(depth, monitor);
         } catch (CoreException e) {
             JdtlsExtActivator.log(e);
@@ -13,6 +13,9 @@ package com.microsoft.jdtls.ext.core;
 
 import java.util.List;
 
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.runtime.IProgressMonitor;
+
 import com.microsoft.jdtls.ext.core.model.NodeKind;
 
 /**
@@ -41,6 +44,58 @@ public class PackageParams {
      */
     private List<String> syncPaths;
 
+    /**
+     * Optional token provided by clients that can render partial results. When
+     * present, the children are pushed to the client in chunks while they are
+     * computed, and the response only contains the children that were not
+     * pushed yet.
+     */
+    private String partialResultToken;
+
+    // The reporter of the partial results of this query, not sent by the client
+    private transient PartialResultReporter partialResultReporter;
+
+    /**
+     * Optional number of levels to return. The children of the returned nodes
+     * are set down to this depth, so that the client does not have to query
+     * them one level at a time. Defaults to one level.
+     */
+    private int depth = 1;
+
+    /**
+     * Optional maximum number of nodes returned below the first level when
+     * {@link #depth} is greater than one. The nodes beyond the budget are left
+     * without children and are queried when they are expanded.
+     */
+    private int nodeBudget;
+
+    /**
+     * Optional index of the first child to return, for the kinds whose
+     * children are paged: {@link NodeKind#PACKAGEROOT}, {@link NodeKind#PACKAGE},
+     * {@link NodeKind#CONTAINER} and {@link NodeKind#FOLDER}.
+     */
+    private int offset;
+
+    /**
+     * Optional maximum number of children to return. When it is not set, the
+     * children are only paged if there are too many of them. The children
+     * left are represented by a {@link NodeKind#MORE} node.
+     */
+    private int limit;
+
+    /**
+     * Optional flag to receive the nodes as a
+     * {@link com.microsoft.jdtls.ext.core.model.CompactPackageData} instead of
+     * a list, for the clients which can decode it.
+     */
+    private boolean compact;
+
+    /**
+     * Optional fields of the nodes to return. All the fields are returned
+     * when it is not set.
+     */
+    private NodeProjection projection;
+
     public PackageParams() {
     }
 
@@ -115,4 +170,70 @@ public class PackageParams {
         this.syncPaths = syncPaths;
     }
 
+    public String getPartialResultToken() {
+        return partialResultToken;
+    }
+
+    public void setPartialResultToken(String partialResultToken) {
+        this.partialResultToken = partialResultToken;
+    }
+
+    /**
+     * Get the reporter pushing the partial results to the client, created on
+     * the first call, or <code>null</code> if the client did not ask for them.
+     */
+    PartialResultReporter getPartialResultReporter(IProgressMonitor monitor) {
+        if (partialResultReporter == null && StringUtils.isNotBlank(partialResultToken)) {
+            partialResultReporter = new PartialResultReporter(partialResultToken, projection, monitor);
+        }
+        return partialResultReporter;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public int getNodeBudget() {
+        return nodeBudget;
+    }
+
+    public void setNodeBudget(int nodeBudget) {
+        this.nodeBudget = nodeBudget;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
+    public void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    public NodeProjection getProjection() {
+        return projection;
+    }
+
+    public void setProjection(NodeProjection projection) {
+        this.projection = projection;
+    }
 }
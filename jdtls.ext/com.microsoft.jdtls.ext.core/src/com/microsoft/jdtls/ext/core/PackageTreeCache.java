@@ -0,0 +1,422 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+import com.microsoft.jdtls.ext.core.model.Trie;
+import com.microsoft.jdtls.ext.core.model.TrieNode;
+
+/**
+ * Keeps the package tree of each package fragment root, so that the packages
+ * shown by the explorer are not computed again from all the children of the
+ * root on every listing.
+ *
+ * The tree is built on the first listing of a root, then updated from the
+ * Java element deltas: added and removed packages are inserted into and
+ * removed from the tree, and the cached answers of a changed package are
+ * forgotten. The tree of a root is dropped when the root itself or the
+ * classpath of its project changes.
+ *
+ * The predicates deciding whether a package is shown may open the package and
+ * list its entries, so they are evaluated on a fork-join pool for the roots
+ * with many packages, e.g. the JRE. The parallelism is bounded and can be
+ * set with the system property {@link #PARALLELISM_PROPERTY}; <code>1</code>
+ * evaluates them on the calling thread.
+ */
+final class PackageTreeCache {
+
+    private static final int ROOT_CHANGE_FLAGS = IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+            | IJavaElementDelta.F_ADDED_TO_CLASSPATH | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+            | IJavaElementDelta.F_CLOSED | IJavaElementDelta.F_OPENED;
+
+    private static final int PROJECT_CHANGE_FLAGS = IJavaElementDelta.F_CLASSPATH_CHANGED
+            | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED | IJavaElementDelta.F_OPENED | IJavaElementDelta.F_CLOSED;
+
+    static final String PARALLELISM_PROPERTY = "java.dependency.packageTreeParallelism";
+
+    private static final int MAX_PARALLELISM = 8;
+
+    // Number of packages below which the predicates are evaluated on the calling thread
+    private static final int PARALLEL_BATCH_SIZE = 32;
+
+    private static ForkJoinPool pool;
+
+    // Keyed by the handle identifier of the root
+    private static final Map<String, PackageTree> trees = new ConcurrentHashMap<>();
+
+    // Bumped by every delta, so that a tree built across a delta is never stored
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static volatile boolean listenerRegistered = false;
+
+    private static final Object listenerLock = new Object();
+
+    private static final IElementChangedListener listener = new IElementChangedListener() {
+        @Override
+        public void elementChanged(ElementChangedEvent event) {
+            generation.incrementAndGet();
+            processDelta(event.getDelta());
+        }
+
+        private void processDelta(IJavaElementDelta delta) {
+            IJavaElement element = delta.getElement();
+            int kind = delta.getKind();
+            switch (element.getElementType()) {
+                case IJavaElement.JAVA_MODEL:
+                    break;
+                case IJavaElement.JAVA_PROJECT:
+                    if (kind != IJavaElementDelta.CHANGED || (delta.getFlags() & PROJECT_CHANGE_FLAGS) != 0) {
+                        String projectHandle = element.getHandleIdentifier();
+                        trees.values().removeIf(tree -> tree.projectHandle.equals(projectHandle));
+                        return;
+                    }
+                    break;
+                case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+                    if (kind != IJavaElementDelta.CHANGED || (delta.getFlags() & ROOT_CHANGE_FLAGS) != 0) {
+                        trees.remove(element.getHandleIdentifier());
+                        return;
+                    }
+                    break;
+                case IJavaElement.PACKAGE_FRAGMENT: {
+                    PackageTree tree = trees.get(element.getParent().getHandleIdentifier());
+                    if (tree != null) {
+                        IPackageFragment fragment = (IPackageFragment) element;
+                        if (kind == IJavaElementDelta.ADDED) {
+                            tree.add(fragment);
+                        } else if (kind == IJavaElementDelta.REMOVED) {
+                            tree.remove(fragment);
+                        } else {
+                            tree.changed(fragment);
+                        }
+                    }
+                    return;
+                }
+                default:
+                    return;
+            }
+
+            for (IJavaElementDelta child : delta.getAffectedChildren()) {
+                processDelta(child);
+            }
+        }
+    };
+
+    /**
+     * The answers of a package needed to decide whether it is shown.
+     */
+    private static final class FragmentInfo {
+        final boolean hasContent;
+
+        FragmentInfo(boolean hasContent) {
+            this.hasContent = hasContent;
+        }
+    }
+
+    private static final class PackageTree {
+        final String projectHandle;
+        final Trie<IPackageFragment> trie = new Trie<>();
+        // in the order of the children of the root
+        final Map<String, IPackageFragment> fragments = new LinkedHashMap<>();
+        final Map<String, FragmentInfo> infos = new HashMap<>();
+        // bumped when the packages change, so that stale answers are not stored
+        long version;
+
+        PackageTree(IPackageFragmentRoot root) throws JavaModelException {
+            this.projectHandle = root.getJavaProject().getHandleIdentifier();
+            for (IJavaElement child : root.getChildren()) {
+                add((IPackageFragment) child);
+            }
+        }
+
+        synchronized void add(IPackageFragment fragment) {
+            String name = fragment.getElementName();
+            fragments.put(name, fragment);
+            trie.insert(name, fragment);
+            infos.remove(name);
+            version++;
+        }
+
+        synchronized void remove(IPackageFragment fragment) {
+            String name = fragment.getElementName();
+            fragments.remove(name);
+            trie.remove(name);
+            infos.remove(name);
+            version++;
+        }
+
+        synchronized void changed(IPackageFragment fragment) {
+            infos.remove(fragment.getElementName());
+            version++;
+        }
+
+        /**
+         * Get the packages shown in the explorer, see
+         * {@link PackageCommand#getPackageFragmentRootContent}.
+         */
+        List<IPackageFragment> getPackages(boolean isHierarchicalView, IProgressMonitor pm) throws JavaModelException {
+            List<IPackageFragment> missing;
+            long token;
+            synchronized (this) {
+                missing = new ArrayList<>();
+                for (IPackageFragment fragment : fragments.values()) {
+                    // the packages without sub packages are always shown
+                    if (!infos.containsKey(fragment.getElementName()) && hasSubpackages(fragment)) {
+                        missing.add(fragment);
+                    }
+                }
+                token = version;
+            }
+
+            // the predicates may open the packages, so they are evaluated without holding the tree
+            Map<String, FragmentInfo> computed = computeInfos(missing, pm);
+            synchronized (this) {
+                if (token == version) {
+                    infos.putAll(computed);
+                }
+                return isHierarchicalView ? getHierarchicalPackages(computed, pm) : getFlatPackages(computed, pm);
+            }
+        }
+
+        private List<IPackageFragment> getFlatPackages(Map<String, FragmentInfo> computed, IProgressMonitor pm) throws JavaModelException {
+            List<IPackageFragment> result = new ArrayList<>();
+            for (IPackageFragment fragment : fragments.values()) {
+                if (pm.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                if (!hasSubpackages(fragment) || hasContent(fragment, computed)) {
+                    result.add(fragment);
+                }
+            }
+            return result;
+        }
+
+        private List<IPackageFragment> getHierarchicalPackages(Map<String, FragmentInfo> computed, IProgressMonitor pm) throws JavaModelException {
+            List<IPackageFragment> result = new ArrayList<>();
+            Deque<TrieNode<IPackageFragment>> stack = new ArrayDeque<>();
+            stack.push(trie.getRoot());
+            while (!stack.isEmpty()) {
+                if (pm.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                TrieNode<IPackageFragment> node = stack.pop();
+                IPackageFragment fragment = node.value;
+                if (fragment != null && (node.children.isEmpty() || node.children.size() > 1 || hasContent(fragment, computed))) {
+                    result.add(fragment);
+                }
+                List<TrieNode<IPackageFragment>> children = new ArrayList<>(node.children.values());
+                for (int i = children.size() - 1; i >= 0; i--) {
+                    stack.push(children.get(i));
+                }
+            }
+            return result;
+        }
+
+        private boolean hasSubpackages(IPackageFragment fragment) {
+            TrieNode<IPackageFragment> node = trie.find(fragment.getElementName());
+            return node != null && !node.children.isEmpty();
+        }
+
+        private boolean hasContent(IPackageFragment fragment, Map<String, FragmentInfo> computed) throws JavaModelException {
+            String name = fragment.getElementName();
+            FragmentInfo info = infos.get(name);
+            if (info == null) {
+                info = computed.get(name);
+            }
+            if (info == null) {
+                // added while the predicates were evaluated
+                info = computeInfo(fragment);
+                infos.put(name, info);
+            }
+            return info.hasContent;
+        }
+    }
+
+    /**
+     * Splits the packages of a root into ranges whose predicates are
+     * evaluated on the pool. Each result is stored at the index of its package.
+     */
+    private static final class ComputeInfosTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<IPackageFragment> fragments;
+        private final FragmentInfo[] infos;
+        private final IProgressMonitor pm;
+        private final int from;
+        private final int to;
+
+        ComputeInfosTask(List<IPackageFragment> fragments, FragmentInfo[] infos, IProgressMonitor pm, int from, int to) {
+            this.fragments = fragments;
+            this.infos = infos;
+            this.pm = pm;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ComputeInfosTask(fragments, infos, pm, from, middle),
+                        new ComputeInfosTask(fragments, infos, pm, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                if (pm.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                try {
+                    infos[i] = computeInfo(fragments.get(i));
+                } catch (JavaModelException e) {
+                    throw new CompletionException(e);
+                }
+            }
+        }
+    }
+
+    private PackageTreeCache() {
+    }
+
+    /**
+     * Get the packages of the root shown in the explorer. A package which only
+     * contains sub packages is hidden, unless it is the deepest common parent
+     * of several packages in the hierarchical view.
+     */
+    static List<IPackageFragment> getPackages(IPackageFragmentRoot root, boolean isHierarchicalView, IProgressMonitor pm) throws JavaModelException {
+        ensureListenerRegistered();
+        String key = root.getHandleIdentifier();
+        PackageTree tree = trees.get(key);
+        if (tree == null) {
+            long token = generation.get();
+            tree = new PackageTree(root);
+            if (token == generation.get()) {
+                PackageTree existing = trees.putIfAbsent(key, tree);
+                if (existing != null) {
+                    tree = existing;
+                }
+            }
+        }
+        return tree.getPackages(isHierarchicalView, pm);
+    }
+
+    /**
+     * Forget the tree of the root, e.g. when it is closed to rebuild its packages.
+     */
+    static void invalidate(IPackageFragmentRoot root) {
+        generation.incrementAndGet();
+        trees.remove(root.getHandleIdentifier());
+    }
+
+    static void clear() {
+        generation.incrementAndGet();
+        trees.clear();
+    }
+
+    static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    private static FragmentInfo computeInfo(IPackageFragment fragment) throws JavaModelException {
+        return new FragmentInfo(fragment.hasChildren() || fragment.getNonJavaResources().length > 0);
+    }
+
+    /**
+     * Evaluate the predicates of the packages, on the pool when there are
+     * enough of them to be worth it.
+     */
+    private static Map<String, FragmentInfo> computeInfos(List<IPackageFragment> fragments, IProgressMonitor pm) throws JavaModelException {
+        FragmentInfo[] infos = new FragmentInfo[fragments.size()];
+        ForkJoinPool pool = fragments.size() > PARALLEL_BATCH_SIZE ? getPool() : null;
+        if (pool == null) {
+            for (int i = 0; i < infos.length; i++) {
+                if (pm.isCanceled()) {
+                    throw new OperationCanceledException();
+                }
+                infos[i] = computeInfo(fragments.get(i));
+            }
+        } else {
+            try {
+                pool.invoke(new ComputeInfosTask(fragments, infos, pm, 0, infos.length));
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof JavaModelException) {
+                    throw (JavaModelException) e.getCause();
+                }
+                throw e;
+            }
+        }
+
+        Map<String, FragmentInfo> result = new HashMap<>();
+        for (int i = 0; i < infos.length; i++) {
+            result.put(fragments.get(i).getElementName(), infos[i]);
+        }
+        return result;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM));
+            if (parallelism <= 1) {
+                return null;
+            }
+            ForkJoinWorkerThreadFactory factory = forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("Java Project Package Tree-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            };
+            pool = new ForkJoinPool(parallelism, factory, null, false);
+        }
+        return pool;
+    }
+
+    private static void ensureListenerRegistered() {
+        if (!listenerRegistered) {
+            synchronized (listenerLock) {
+                if (!listenerRegistered) {
+                    try {
+                        JavaCore.addElementChangedListener(listener, ElementChangedEvent.POST_CHANGE);
+                        listenerRegistered = true;
+                    } catch (Exception e) {
+                        JdtlsExtActivator.logException("Failed to register the package tree listener", e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+import com.microsoft.jdtls.ext.core.model.PackageNode;
+
+/**
+ * Pushes chunks of a <code>java.getPackageData</code> result to the client
+ * before the command returns.
+ *
+ * Delegate commands do not have access to the LSP partial result token, so the
+ * client passes its own token in the request and the chunks are sent through
+ * the client command {@link #COMMAND_ID}, as notifications so that the
+ * command does not wait for the client to render them. The nodes that have
+ * not been pushed yet are returned as the response of the request. The chunks
+ * have the fields requested by the {@link NodeProjection} of the request only.
+ */
+public class PartialResultReporter implements Consumer<List<PackageNode>> {
+
+    public static final String COMMAND_ID = "_java.view.package.internal.partialResult";
+
+    private final String token;
+
+    private final NodeProjection projection;
+
+    private final IProgressMonitor monitor;
+
+    private final List<PackageNode> reportedNodes = new ArrayList<>();
+
+    public PartialResultReporter(String token, NodeProjection projection, IProgressMonitor monitor) {
+        this.token = token;
+        this.projection = projection;
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void accept(List<PackageNode> nodes) {
+        if (monitor != null && monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+        if (nodes == null || nodes.isEmpty()) {
+            return;
+        }
+        reportedNodes.addAll(nodes);
+        List<PackageNode> chunk = projection == null ? nodes : projection.apply(nodes);
+        JavaLanguageServerPlugin.getInstance().getClientConnection().sendNotification(COMMAND_ID, token, chunk);
+    }
+
+    /**
+     * @return the nodes pushed so far, which are not in the response
+     */
+    List<PackageNode> getReportedNodes() {
+        return reportedNodes;
+    }
+}
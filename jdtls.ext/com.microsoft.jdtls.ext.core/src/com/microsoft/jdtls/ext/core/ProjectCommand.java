@@ -64,11 +64,9 @@ import org.eclipse.jdt.ls.core.internal.ResourceUtils;
 import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
 import org.eclipse.jdt.ls.core.internal.managers.UpdateClasspathJob;
 import org.eclipse.jdt.ls.core.internal.preferences.Preferences.ReferencedLibraries;
-import org.eclipse.lsp4j.jsonrpc.json.adapters.CollectionTypeAdapter;
-import org.eclipse.lsp4j.jsonrpc.json.adapters.EnumTypeAdapter;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.microsoft.jdtls.ext.core.jfr.Tracer;
+import com.microsoft.jdtls.ext.core.jfr.Tracer.Span;
 import com.microsoft.jdtls.ext.core.parser.ContextResolver;
 import com.microsoft.jdtls.ext.core.parser.ContextResolver.ImportClassInfo;
 import com.microsoft.jdtls.ext.core.parser.ProjectResolver;
@@ -230,62 +228,61 @@ public final class ProjectCommand {
         public boolean isArtifact;
     }
 
-    private static final Gson gson = new GsonBuilder().registerTypeAdapterFactory(new CollectionTypeAdapter.Factory())
-            .registerTypeAdapterFactory(new EnumTypeAdapter.Factory()).create();
-
     public static List<PackageNode> listProjects(List<Object> arguments, IProgressMonitor monitor) {
-        String workspaceUri = (String) arguments.get(0);
+        String workspaceUri = CommandArguments.getString(arguments, 0);
         IPath workspaceFolderPath = ResourceUtils.canonicalFilePathFromURI(workspaceUri);
+        boolean filterNonJava = CommandArguments.getBoolean(arguments, 1, false);
+        NodeProjection projection = CommandArguments.get(arguments, 2, NodeProjection.class);
+        return ProjectListCache.getProjectNodes(workspaceFolderPath, filterNonJava, projection, monitor);
+    }
 
-        IProject[] projects;
-        boolean filterNonJava = false;
-        if (arguments.size() > 1) {
-            filterNonJava = (boolean) arguments.get(1);
-        }
+    static IProject[] getProjects(boolean filterNonJava) {
         if (!filterNonJava) {
-            projects = ProjectUtils.getAllProjects();
-        } else {
-            projects = Arrays.stream(ProjectUtils.getJavaProjects())
-                    .map(IJavaProject::getProject).toArray(IProject[]::new);
+            return ProjectUtils.getAllProjects();
         }
+        return Arrays.stream(ProjectUtils.getJavaProjects())
+                .map(IJavaProject::getProject).toArray(IProject[]::new);
+    }
 
-        ArrayList<PackageNode> children = new ArrayList<>();
-        for (IProject project : projects) {
-            if (!project.isAccessible() || project.getLocation() == null) {
-                continue;
-            }
+    /**
+     * Create the node of the project shown in the workspace folder.
+     *
+     * @return the node, or <code>null</code> if the project is not shown
+     */
+    static PackageNode createProjectNode(IProject project, IPath workspaceFolderPath) {
+        if (!project.isAccessible() || project.getLocation() == null) {
+            return null;
+        }
 
-            // ignore default projects
-            if (Objects.equals(project.getName(), ProjectsManager.DEFAULT_PROJECT_NAME)) {
-                continue;
-            }
+        // ignore default projects
+        if (Objects.equals(project.getName(), ProjectsManager.DEFAULT_PROJECT_NAME)) {
+            return null;
+        }
 
-            PackageNode projectNode = PackageNode.createNodeForProject(JavaCore.create(project));
+        PackageNode projectNode = PackageNode.createNodeForProject(JavaCore.create(project));
 
-            if (!workspaceFolderPath.isPrefixOf(project.getLocation())) {
-                LinkedFolderVisitor visitor = new LinkedFolderVisitor(workspaceFolderPath);
-                try {
-                    project.accept(visitor, IResource.DEPTH_ONE, false);
-                } catch (CoreException e) {
-                    JdtlsExtActivator.log(e);
-                    continue;
-                }
-
-                if (!visitor.isBelongsToWorkspace()) {
-                    continue;
-                }
+        if (!workspaceFolderPath.isPrefixOf(project.getLocation())) {
+            LinkedFolderVisitor visitor = new LinkedFolderVisitor(workspaceFolderPath);
+            try {
+                project.accept(visitor, IResource.DEPTH_ONE, false);
+            } catch (CoreException e) {
+                JdtlsExtActivator.log(e);
+                return null;
+            }
 
-                // set the folder name as the project name when the project location
-                // is out of the workspace folder.
-                projectNode.setDisplayName(workspaceFolderPath.lastSegment());
+            if (!visitor.isBelongsToWorkspace()) {
+                return null;
             }
-            children.add(projectNode);
+
+            // set the folder name as the project name when the project location
+            // is out of the workspace folder.
+            projectNode.setDisplayName(workspaceFolderPath.lastSegment());
         }
-        return children;
+        return projectNode;
     }
 
     public static boolean refreshLibraries(List<Object> arguments, IProgressMonitor monitor) {
-        String workspaceUri = (String) arguments.get(0);
+        String workspaceUri = CommandArguments.getString(arguments, 0);
         IPath workspacePath = ResourceUtils.canonicalFilePathFromURI(workspaceUri);
         String projectName = ProjectUtils.getWorkspaceInvisibleProjectName(workspacePath);
         IProject project = getWorkspaceRoot().getProject(projectName);
@@ -308,10 +305,10 @@ public final class ProjectCommand {
         if (arguments.size() < 4) {
             return false;
         }
-        String mainClass = gson.fromJson(gson.toJson(arguments.get(0)), String.class);
-        Classpath[] classpaths = gson.fromJson(gson.toJson(arguments.get(1)), Classpath[].class);
-        String destination = gson.fromJson(gson.toJson(arguments.get(2)), String.class);
-        String terminalId = gson.fromJson(gson.toJson(arguments.get(3)), String.class);
+        String mainClass = CommandArguments.getString(arguments, 0);
+        Classpath[] classpaths = CommandArguments.get(arguments, 1, Classpath[].class);
+        String destination = CommandArguments.getString(arguments, 2);
+        String terminalId = CommandArguments.getString(arguments, 3);
         try {
             return exportJarExecution(mainClass, classpaths, destination, terminalId, monitor);
         } catch (OperationCanceledException e) {
@@ -337,9 +334,15 @@ public final class ProjectCommand {
                     return false;
                 }
                 if (classpath.isArtifact) {
-                    MultiStatus resultStatus = writeArchive(new ZipFile(classpath.source),
-                            /* areDirectoryEntriesIncluded = */true, /* isCompressed = */true, target, directories,
-                            monitor);
+                    MultiStatus resultStatus;
+                    Span span = Tracer.exportJarEntry(classpath.source, true);
+                    try {
+                        resultStatus = writeArchive(new ZipFile(classpath.source),
+                                /* areDirectoryEntriesIncluded = */true, /* isCompressed = */true, target, directories,
+                                monitor);
+                    } finally {
+                        span.close();
+                    }
                     int severity = resultStatus.getSeverity();
                     if (severity == IStatus.OK) {
                         java.nio.file.Path path = java.nio.file.Paths.get(classpath.source);
@@ -356,6 +359,7 @@ public final class ProjectCommand {
                         reportExportJarMessage(terminalId, severity, resultStatus.getMessage());
                     }
                 } else {
+                    Span span = Tracer.exportJarEntry(classpath.source, false);
                     try {
                         writeFile(new File(classpath.source), new Path(classpath.destination), /*
                                                                                                 * areDirectoryEntriesIncluded
@@ -366,6 +370,8 @@ public final class ProjectCommand {
                                 "Successfully added the file to the exported jar: " + classpath.destination);
                     } catch (CoreException e) {
                         reportExportJarMessage(terminalId, IStatus.ERROR, e.getMessage());
+                    } finally {
+                        span.close();
                     }
                 }
             }
@@ -488,16 +494,18 @@ public final class ProjectCommand {
      */
     public static ImportClassContentResult getImportClassContent(List<Object> arguments,
             IProgressMonitor monitor) {
-        // Record start time for timeout control
-        long startTime = System.currentTimeMillis();
+        // Phase 2 is bounded by this deadline, started now for timeout control
         final long TIMEOUT_MS = 80; // 80ms timeout
+        Deadline deadline = Deadline.of(monitor, TIMEOUT_MS);
 
         if (arguments == null || arguments.isEmpty()) {
             return new ImportClassContentResult(ImportClassContentErrorReason.NULL_ARGUMENTS);
         }
 
+        // The event of the running phase, closed in the finally block when the phase ends early
+        Span phase = null;
         try {
-            String fileUri = (String) arguments.get(0);
+            String fileUri = CommandArguments.getString(arguments, 0);
             if (fileUri == null || fileUri.trim().isEmpty()) {
                 return new ImportClassContentResult(ImportClassContentErrorReason.INVALID_URI, fileUri);
             }
@@ -532,6 +540,7 @@ public final class ProjectCommand {
             }
 
             // Phase 1: Priority - Resolve project source classes (internal)
+            phase = Tracer.phase("importClassContent.projectSources", fileUri);
             for (org.eclipse.jdt.core.IImportDeclaration importDecl : imports) {
                 // Check cancellation before each operation
                 if (monitor.isCanceled()) {
@@ -555,36 +564,29 @@ public final class ProjectCommand {
                     ContextResolver.resolveSingleType(javaProject, importName, classInfoList, processedTypes, monitor);
                 }
             }
+            phase.close();
+            phase = null;
 
             // Phase 2: Resolve external dependencies if not cancelled and within time limit
             if (!monitor.isCanceled()) {
                 // Check if we have exceeded the timeout before starting external resolution
-                long currentTime = System.currentTimeMillis();
-                long elapsedTime = currentTime - startTime;
-
-                if (elapsedTime >= TIMEOUT_MS) {
+                if (deadline.isExpired()) {
                     // Return early due to timeout, but still return what we have collected so far
                     if (classInfoList.isEmpty()) {
                         return new ImportClassContentResult(ImportClassContentErrorReason.TIME_LIMIT_EXCEEDED,
-                                String.valueOf(elapsedTime) + "ms");
+                                String.valueOf(deadline.elapsedMillis()) + "ms");
                     }
                     return new ImportClassContentResult(classInfoList);
                 }
 
                 List<ImportClassInfo> externalClasses = new ArrayList<>();
 
+                phase = Tracer.phase("importClassContent.externalDependencies", fileUri);
                 for (org.eclipse.jdt.core.IImportDeclaration importDecl : imports) {
-                    // Check cancellation before each external resolution
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
-
-                    // Check timeout before each external resolution
-                    currentTime = System.currentTimeMillis();
-                    elapsedTime = currentTime - startTime;
-                    if (elapsedTime >= TIMEOUT_MS) {
-                        // Timeout reached, stop processing external dependencies but keep existing
-                        // results
+                    // Check cancellation and timeout before each external resolution. When the
+                    // timeout is reached, stop processing external dependencies but keep existing
+                    // results
+                    if (deadline.isCanceled()) {
                         break;
                     }
 
@@ -599,9 +601,11 @@ public final class ProjectCommand {
                     // Resolve external (binary) types with simplified content
                     if (!isStatic) {
                         ContextResolver.resolveBinaryType(javaProject, importName, externalClasses,
-                                processedTypes, Integer.MAX_VALUE, monitor);
+                                processedTypes, Integer.MAX_VALUE, deadline);
                     }
                 }
+                phase.close();
+                phase = null;
 
                 // Append external classes after project sources
                 classInfoList.addAll(externalClasses);
@@ -618,12 +622,16 @@ public final class ProjectCommand {
             String errorUri = null;
             try {
                 if (arguments != null && !arguments.isEmpty()) {
-                    errorUri = (String) arguments.get(0);
+                    errorUri = CommandArguments.getString(arguments, 0);
                 }
             } catch (Exception ignored) {
                 // Ignore any further exceptions when trying to get context
             }
             return new ImportClassContentResult(ImportClassContentErrorReason.PROCESSING_EXCEPTION, errorUri);
+        } finally {
+            if (phase != null) {
+                phase.close();
+            }
         }
     }
 
@@ -667,7 +675,7 @@ public final class ProjectCommand {
         }
 
         try {
-            String fileUri = (String) arguments.get(0);
+            String fileUri = CommandArguments.getString(arguments, 0);
             if (fileUri == null || fileUri.trim().isEmpty()) {
                 return new ProjectDependenciesResult(ProjectDependenciesErrorReason.INVALID_URI, fileUri);
             }
@@ -713,7 +721,7 @@ public final class ProjectCommand {
             String errorUri = null;
             try {
                 if (arguments != null && !arguments.isEmpty()) {
-                    errorUri = (String) arguments.get(0);
+                    errorUri = CommandArguments.getString(arguments, 0);
                 }
             } catch (Exception ignored) {
                 // Ignore any further exceptions when trying to get context
@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+import com.microsoft.jdtls.ext.core.model.PackageNode;
+
+/**
+ * Caches the project nodes listed for a workspace folder, see
+ * {@link ProjectCommand#listProjects}.
+ *
+ * The lists are dropped when a project is created, deleted, opened, closed,
+ * moved or its description changes, and when a linked resource is created
+ * or removed at the top level of a project located outside of a workspace
+ * folder, since such a project is only listed through its links. They are
+ * also dropped when the data of the project nodes changes, see
+ * {@link ProjectNodeCache}.
+ *
+ * On a miss, the nodes are created on a fork-join pool when there are many
+ * projects. The parallelism is bounded and can be set with the system
+ * property {@link #PARALLELISM_PROPERTY}; <code>1</code> creates them on the
+ * calling thread.
+ */
+final class ProjectListCache {
+
+    private static final int PROJECT_CHANGE_FLAGS = IResourceDelta.OPEN | IResourceDelta.DESCRIPTION
+            | IResourceDelta.REPLACED | IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO;
+
+    private static final int LINK_CHANGE_FLAGS = IResourceDelta.REPLACED | IResourceDelta.LOCAL_CHANGED;
+
+    static final String PARALLELISM_PROPERTY = "java.dependency.projectListParallelism";
+
+    private static final int MAX_PARALLELISM = 8;
+
+    // Number of projects below which the nodes are created on the calling thread
+    private static final int PARALLEL_BATCH_SIZE = 16;
+
+    private static ForkJoinPool pool;
+
+    // Keyed by the workspace folder and whether the non Java projects are filtered out
+    private static final Map<String, ProjectList> lists = new ConcurrentHashMap<>();
+
+    // Names of the projects outside of a workspace folder, whose links decide whether they are listed
+    private static final Set<String> linkedProjects = ConcurrentHashMap.newKeySet();
+
+    // Bumped by every invalidation, so that a list computed across an invalidation is never stored
+    private static final AtomicLong generation = new AtomicLong();
+
+    private static volatile boolean listenerRegistered = false;
+
+    private static final Object listenerLock = new Object();
+
+    private static final IResourceChangeListener listener = event -> {
+        IResourceDelta delta = event.getDelta();
+        if (delta == null) {
+            return;
+        }
+        for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+            if (isProjectChanged(projectDelta)) {
+                generation.incrementAndGet();
+                lists.clear();
+                return;
+            }
+        }
+    };
+
+    private static final class ProjectList {
+        final long projectNodeGeneration;
+        final List<PackageNode> nodes;
+
+        ProjectList(long projectNodeGeneration, List<PackageNode> nodes) {
+            this.projectNodeGeneration = projectNodeGeneration;
+            this.nodes = nodes;
+        }
+    }
+
+    /**
+     * Creates the nodes of a range of the projects, each node at the index of
+     * its project.
+     */
+    private static final class CreateNodesTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final IProject[] projects;
+        private final PackageNode[] nodes;
+        private final IPath workspaceFolderPath;
+        private final IProgressMonitor monitor;
+        private final int from;
+        private final int to;
+
+        CreateNodesTask(IProject[] projects, PackageNode[] nodes, IPath workspaceFolderPath, IProgressMonitor monitor, int from, int to) {
+            this.projects = projects;
+            this.nodes = nodes;
+            this.workspaceFolderPath = workspaceFolderPath;
+            this.monitor = monitor;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new CreateNodesTask(projects, nodes, workspaceFolderPath, monitor, from, middle),
+                        new CreateNodesTask(projects, nodes, workspaceFolderPath, monitor, middle, to));
+                return;
+            }
+            createNodes(projects, nodes, workspaceFolderPath, monitor, from, to);
+        }
+    }
+
+    private ProjectListCache() {
+    }
+
+    /**
+     * Get the nodes of the projects shown in the workspace folder. The nodes
+     * are copies, which can be changed by the caller, with the fields
+     * requested by the projection only if there is one.
+     */
+    static List<PackageNode> getProjectNodes(IPath workspaceFolderPath, boolean filterNonJava, NodeProjection projection,
+            IProgressMonitor monitor) {
+        ensureListenerRegistered();
+        String key = filterNonJava + ":" + workspaceFolderPath.toPortableString();
+        ProjectList list = lists.get(key);
+        long projectNodeGeneration = ProjectNodeCache.getGeneration();
+        if (list == null || list.projectNodeGeneration != projectNodeGeneration) {
+            long token = generation.get();
+            list = new ProjectList(projectNodeGeneration, createNodes(workspaceFolderPath, filterNonJava, monitor));
+            if (token == generation.get()) {
+                lists.put(key, list);
+            }
+        }
+
+        if (projection != null) {
+            return projection.apply(list.nodes);
+        }
+        List<PackageNode> result = new ArrayList<>(list.nodes.size());
+        for (PackageNode node : list.nodes) {
+            result.add(node.copy());
+        }
+        return result;
+    }
+
+    static void clear() {
+        generation.incrementAndGet();
+        lists.clear();
+    }
+
+    static synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    private static List<PackageNode> createNodes(IPath workspaceFolderPath, boolean filterNonJava, IProgressMonitor monitor) {
+        IProject[] projects = ProjectCommand.getProjects(filterNonJava);
+        for (IProject project : projects) {
+            IPath location = project.getLocation();
+            if (location != null && !workspaceFolderPath.isPrefixOf(location)) {
+                linkedProjects.add(project.getName());
+            }
+        }
+
+        PackageNode[] nodes = new PackageNode[projects.length];
+        ForkJoinPool pool = projects.length > PARALLEL_BATCH_SIZE ? getPool() : null;
+        if (pool == null) {
+            createNodes(projects, nodes, workspaceFolderPath, monitor, 0, nodes.length);
+        } else {
+            pool.invoke(new CreateNodesTask(projects, nodes, workspaceFolderPath, monitor, 0, nodes.length));
+        }
+
+        List<PackageNode> result = new ArrayList<>();
+        for (PackageNode node : nodes) {
+            if (node != null) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    private static void createNodes(IProject[] projects, PackageNode[] nodes, IPath workspaceFolderPath, IProgressMonitor monitor, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (monitor != null && monitor.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+            nodes[i] = ProjectCommand.createProjectNode(projects[i], workspaceFolderPath);
+        }
+    }
+
+    private static boolean isProjectChanged(IResourceDelta projectDelta) {
+        if (projectDelta.getKind() != IResourceDelta.CHANGED || (projectDelta.getFlags() & PROJECT_CHANGE_FLAGS) != 0) {
+            return true;
+        }
+        if (!linkedProjects.contains(projectDelta.getResource().getName())) {
+            return false;
+        }
+        // a removed member cannot be told apart from a removed link anymore
+        for (IResourceDelta memberDelta : projectDelta.getAffectedChildren()) {
+            switch (memberDelta.getKind()) {
+                case IResourceDelta.ADDED:
+                    if (memberDelta.getResource().isLinked()) {
+                        return true;
+                    }
+                    break;
+                case IResourceDelta.REMOVED:
+                    return true;
+                default:
+                    if ((memberDelta.getFlags() & LINK_CHANGE_FLAGS) != 0 && memberDelta.getResource().isLinked()) {
+                        return true;
+                    }
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, Math.min(Runtime.getRuntime().availableProcessors(), MAX_PARALLELISM));
+            if (parallelism <= 1) {
+                return null;
+            }
+            ForkJoinWorkerThreadFactory factory = forkJoinPool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("Java Project List-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            };
+            pool = new ForkJoinPool(parallelism, factory, null, false);
+        }
+        return pool;
+    }
+
+    private static void ensureListenerRegistered() {
+        if (!listenerRegistered) {
+            synchronized (listenerLock) {
+                if (!listenerRegistered) {
+                    try {
+                        ResourcesPlugin.getWorkspace().addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+                        listenerRegistered = true;
+                    } catch (Exception e) {
+                        JdtlsExtActivator.logException("Failed to register the project list listener", e);
+                    }
+                }
+            }
+        }
+    }
+}
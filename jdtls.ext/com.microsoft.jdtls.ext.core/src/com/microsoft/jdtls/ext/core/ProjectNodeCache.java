@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ProjectScope;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+
+/**
+ * Caches the data of the project nodes, see
+ * {@link com.microsoft.jdtls.ext.core.model.PackageNode#createNodeForProject},
+ * so that the project description and the compiler options are not read
+ * again for every node of a project.
+ *
+ * The data of a project is dropped when the project is added, removed,
+ * opened or closed, when its description changes, and when its settings
+ * change. The data of all the projects is dropped when the workspace Java
+ * options change, or the project Java options change through the
+ * preferences, which are saved to the settings only on a flush.
+ */
+public final class ProjectNodeCache {
+
+    private static final int PROJECT_CHANGE_FLAGS = IResourceDelta.OPEN | IResourceDelta.DESCRIPTION
+            | IResourceDelta.REPLACED | IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO;
+
+    private static final String SETTINGS_FOLDER = ".settings";
+
+    // Keyed by the project name
+    private static final Map<String, ProjectInfo> infos = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation, so that data computed across an invalidation is never stored
+    private static final AtomicLong generation = new AtomicLong();
+
+    // The Java preferences of the projects, keyed by the project name
+    private static final Map<String, IEclipsePreferences> projectPreferences = new ConcurrentHashMap<>();
+
+    private static volatile boolean listenersRegistered = false;
+
+    private static final Object listenerLock = new Object();
+
+    private static final IResourceChangeListener resourceListener = event -> {
+        IResourceDelta delta = event.getDelta();
+        if (delta == null) {
+            return;
+        }
+        for (IResourceDelta projectDelta : delta.getAffectedChildren()) {
+            if (isProjectChanged(projectDelta)) {
+                generation.incrementAndGet();
+                infos.remove(projectDelta.getResource().getName());
+            }
+        }
+    };
+
+    private static final IEclipsePreferences.IPreferenceChangeListener preferenceListener = event -> {
+        generation.incrementAndGet();
+        infos.clear();
+    };
+
+    /**
+     * The data of a project node.
+     */
+    public static final class ProjectInfo {
+        private final String uri;
+        private final List<String> natureIds;
+        private final String unmanagedFolderInnerPath;
+        private final Integer maxSourceVersion;
+
+        ProjectInfo(String uri, List<String> natureIds, String unmanagedFolderInnerPath, Integer maxSourceVersion) {
+            this.uri = uri;
+            this.natureIds = natureIds;
+            this.unmanagedFolderInnerPath = unmanagedFolderInnerPath;
+            this.maxSourceVersion = maxSourceVersion;
+        }
+
+        /**
+         * @return the uri of the real folder of the project
+         */
+        public String getUri() {
+            return uri;
+        }
+
+        /**
+         * @return the nature ids of the description, or <code>null</code> if it cannot be read
+         */
+        public List<String> getNatureIds() {
+            return natureIds;
+        }
+
+        /**
+         * @return the location of an unmanaged folder project, <code>null</code> otherwise
+         */
+        public String getUnmanagedFolderInnerPath() {
+            return unmanagedFolderInnerPath;
+        }
+
+        /**
+         * @return the major version of the Java source level, or <code>null</code> if the description cannot be read
+         */
+        public Integer getMaxSourceVersion() {
+            return maxSourceVersion;
+        }
+    }
+
+    private ProjectNodeCache() {
+    }
+
+    /**
+     * Get the data of the project node, computed on the first call.
+     */
+    public static ProjectInfo getInfo(IJavaProject javaProject) {
+        ensureListenersRegistered();
+        IProject project = javaProject.getProject();
+        ProjectInfo info = infos.get(project.getName());
+        if (info == null) {
+            long token = generation.get();
+            watchProjectPreferences(project);
+            info = computeInfo(javaProject);
+            if (token == generation.get()) {
+                infos.put(project.getName(), info);
+            }
+        }
+        return info;
+    }
+
+    /**
+     * Get the counter bumped whenever the data of a project may have changed,
+     * so that the nodes built from the data can be cached too.
+     */
+    static long getGeneration() {
+        ensureListenersRegistered();
+        return generation.get();
+    }
+
+    static void clear() {
+        generation.incrementAndGet();
+        infos.clear();
+    }
+
+    private static ProjectInfo computeInfo(IJavaProject javaProject) {
+        IProject project = javaProject.getProject();
+        String uri = ProjectUtils.getProjectRealFolder(project).toFile().toURI().toString();
+        try {
+            List<String> natureIds = Arrays.asList(project.getDescription().getNatureIds());
+            String innerPath = ProjectUtils.isVisibleProject(project) ? null : project.getLocationURI().toString();
+            String sourceVersion = javaProject.getOption(JavaCore.COMPILER_SOURCE, true);
+            int jdkLevel = (int) (CompilerOptions.versionToJdkLevel(sourceVersion, true) >>> 16);
+            int majorVersion = Math.max(0, jdkLevel - ClassFileConstants.MAJOR_VERSION_0);
+            return new ProjectInfo(uri, Collections.unmodifiableList(natureIds), innerPath, majorVersion);
+        } catch (CoreException e) {
+            return new ProjectInfo(uri, null, null, null);
+        }
+    }
+
+    /**
+     * Listen to the Java preferences of the project, which hold its compiler
+     * options. The preferences of a project are created again when the project
+     * is recreated, so the listener is moved to the current ones.
+     */
+    private static void watchProjectPreferences(IProject project) {
+        IEclipsePreferences preferences = new ProjectScope(project).getNode(JavaCore.PLUGIN_ID);
+        IEclipsePreferences previous = projectPreferences.put(project.getName(), preferences);
+        if (previous == preferences) {
+            return;
+        }
+        try {
+            if (previous != null) {
+                previous.removePreferenceChangeListener(preferenceListener);
+            }
+        } catch (IllegalStateException e) {
+            // the previous preferences were removed with their project
+        }
+        preferences.addPreferenceChangeListener(preferenceListener);
+    }
+
+    private static boolean isProjectChanged(IResourceDelta projectDelta) {
+        if (projectDelta.getKind() != IResourceDelta.CHANGED || (projectDelta.getFlags() & PROJECT_CHANGE_FLAGS) != 0) {
+            return true;
+        }
+        // the project specific compiler options are stored in the settings folder
+        IResourceDelta settingsDelta = projectDelta.findMember(new Path(SETTINGS_FOLDER));
+        return settingsDelta != null && settingsDelta.getResource().getType() == IResource.FOLDER;
+    }
+
+    private static void ensureListenersRegistered() {
+        if (!listenersRegistered) {
+            synchronized (listenerLock) {
+                if (!listenersRegistered) {
+                    try {
+                        ResourcesPlugin.getWorkspace().addResourceChangeListener(resourceListener, IResourceChangeEvent.POST_CHANGE);
+                        InstanceScope.INSTANCE.getNode(JavaCore.PLUGIN_ID).addPreferenceChangeListener(preferenceListener);
+                        listenersRegistered = true;
+                    } catch (Exception e) {
+                        JdtlsExtActivator.logException("Failed to register the project node listeners", e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Remembers the stamp of the directories refreshed one level deep, so that
+ * the refresh is skipped while the directory provably did not change.
+ *
+ * Creating, deleting or renaming an entry of a directory updates its
+ * modification time. A stamp is only trusted when the modification time is
+ * older than the stamp by more than the timestamp granularity of the file
+ * system, otherwise a change made in the same tick could be missed. The
+ * contents of the files are not compared, since the explorer only lists the
+ * entries of the directory.
+ *
+ * The throttling can be disabled with the system property {@link #ENABLED_PROPERTY}.
+ */
+final class RefreshStamps {
+
+    static final String ENABLED_PROPERTY = "java.dependency.refreshStamps";
+
+    private static final int MAX_ENTRIES = 4096;
+
+    // Coarsest modification time granularity of the common file systems, e.g. FAT
+    private static final long GRANULARITY_MS = 2000;
+
+    private static final Map<IPath, Stamp> stamps = new LinkedHashMap<IPath, Stamp>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<IPath, Stamp> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private static final class Stamp {
+        final long modified;
+        final Object fileKey;
+        final long recorded;
+
+        Stamp(long modified, Object fileKey, long recorded) {
+            this.modified = modified;
+            this.fileKey = fileKey;
+            this.recorded = recorded;
+        }
+
+        boolean isUnchanged(Stamp current) {
+            return modified == current.modified && Objects.equals(fileKey, current.fileKey)
+                    && recorded - modified > GRANULARITY_MS;
+        }
+    }
+
+    private RefreshStamps() {
+    }
+
+    /**
+     * Check whether the directory has to be refreshed one level deep, and
+     * remember its current stamp if so. The stamp is taken before the refresh,
+     * so that a change made during the refresh is seen by the next call.
+     *
+     * @return <code>false</code> if the directory did not change since the
+     *         last call returning <code>true</code>
+     */
+    static boolean needsRefresh(IContainer container) {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return true;
+        }
+        IPath location = container.getLocation();
+        if (location == null) {
+            return true;
+        }
+        Stamp current;
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(location.toFile().toPath(), BasicFileAttributes.class);
+            current = new Stamp(attributes.lastModifiedTime().toMillis(), attributes.fileKey(), System.currentTimeMillis());
+        } catch (IOException | UnsupportedOperationException e) {
+            // e.g. deleted on disk, the refresh removes it from the workspace
+            synchronized (stamps) {
+                stamps.remove(location);
+            }
+            return true;
+        }
+
+        synchronized (stamps) {
+            Stamp previous = stamps.get(location);
+            if (previous != null && previous.isUnchanged(current)) {
+                return false;
+            }
+            stamps.put(location, current);
+            return true;
+        }
+    }
+
+    /**
+     * Forget the stamp of the directory, e.g. when its refresh was cancelled.
+     */
+    static void forget(IContainer container) {
+        IPath location = container.getLocation();
+        if (location != null) {
+            synchronized (stamps) {
+                stamps.remove(location);
+            }
+        }
+    }
+
+    static void clear() {
+        synchronized (stamps) {
+            stamps.clear();
+        }
+    }
+}
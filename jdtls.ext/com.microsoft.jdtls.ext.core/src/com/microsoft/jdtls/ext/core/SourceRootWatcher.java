@@ -0,0 +1,470 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Records the directories of the source roots which changed on disk since
+ * their content was last listed, so that only these directories are
+ * refreshed instead of the whole source tree.
+ *
+ * A source root is watched from its first listing, its directories being
+ * registered in the background, and is trusted after the first full refresh
+ * which follows the registration. The directories where
+ * files or directories were created or deleted are refreshed one level deep,
+ * and the created directories are refreshed recursively. The pending events
+ * are drained when the changes are taken, so that the changes are complete
+ * up to the listing. When the changes are unknown, e.g. on the first listing,
+ * after an overflow of the watch events, or when the directories of the
+ * source root exceed {@link #MAX_ROOT_DIRECTORIES} or all the watched
+ * directories exceed {@link #MAX_WATCHED_DIRECTORIES}, the caller does a full
+ * refresh.
+ * The changes are only forgotten once the caller reports the source root as
+ * synchronized, so that a cancelled refresh is done again on the next listing.
+ *
+ * Only the native watch services report the events as they happen; the
+ * polling one, used e.g. on macOS, scans the directories every few seconds
+ * and misses the changes made just before a listing. The changes are never
+ * tracked with it, and the source roots are always fully refreshed.
+ *
+ * The tracking can be disabled with the system property {@link #ENABLED_PROPERTY}.
+ */
+final class SourceRootWatcher {
+
+    static final String ENABLED_PROPERTY = "java.dependency.sourceRootWatcher";
+
+    // Each watched directory takes a watch of the OS, e.g. an inotify watch on
+    // Linux, whose limit (8192 by default on many distributions) is shared
+    // with the other watchers of the user, so only a part of it is used.
+    // Above these numbers of directories, in a source root or over all of them,
+    // the source root being watched is always fully refreshed instead.
+    private static final int MAX_ROOT_DIRECTORIES = 1000;
+
+    private static final int MAX_WATCHED_DIRECTORIES = 2000;
+
+    private static final String POLLING_WATCH_SERVICE = "PollingWatchService";
+
+    private static final Object lock = new Object();
+
+    private static final Map<Path, RootState> roots = new HashMap<>();
+
+    private static final Map<WatchKey, Registration> registrations = new HashMap<>();
+
+    private static WatchService watchService;
+
+    // registers the directories of the source roots, out of the listings and the lock
+    private static ExecutorService registrar;
+
+    // no native watch service is available
+    private static boolean unavailable;
+
+    /**
+     * The changes of a source root since its last listing.
+     */
+    static final class Changes {
+        private final List<IContainer> changedDirectories;
+        private final List<IContainer> createdDirectories;
+        private final int structuralChanges;
+        // the recorded changes, forgotten once the source root is synchronized
+        private final RootState root;
+        private final Set<Path> changed;
+        private final Set<Path> created;
+
+        Changes(List<IContainer> changedDirectories, List<IContainer> createdDirectories, RootState root) {
+            this.changedDirectories = changedDirectories;
+            this.createdDirectories = createdDirectories;
+            this.structuralChanges = root.structuralChanges;
+            this.root = root;
+            this.changed = new HashSet<>(root.changed);
+            this.created = new HashSet<>(root.created);
+        }
+
+        /**
+         * @return the directories to refresh one level deep, parents first
+         */
+        List<IContainer> getChangedDirectories() {
+            return changedDirectories;
+        }
+
+        /**
+         * @return the directories to refresh recursively, after the changed directories
+         */
+        List<IContainer> getCreatedDirectories() {
+            return createdDirectories;
+        }
+
+        /**
+         * @return whether directories, hence packages, were created or deleted
+         */
+        boolean isStructural() {
+            return structuralChanges > 0;
+        }
+    }
+
+    private static final class RootState {
+        final Set<Path> directories = new HashSet<>();
+        final Set<Path> changed = new HashSet<>();
+        final Set<Path> created = new HashSet<>();
+        // number of the directories created or deleted
+        int structuralChanges;
+        // the directories are being registered
+        boolean registering = true;
+        // a full refresh started after the registration
+        boolean syncing;
+        // the source root was fully refreshed since it is watched
+        boolean synced;
+        // the changes are unknown, e.g. after an overflow of the events
+        boolean lost;
+        // not watched, e.g. too many directories
+        boolean untracked;
+    }
+
+    private static final class Registration {
+        final RootState root;
+        final Path directory;
+
+        Registration(RootState root, Path directory) {
+            this.root = root;
+            this.directory = directory;
+        }
+    }
+
+    private SourceRootWatcher() {
+    }
+
+    /**
+     * Get the changes of the source root since it was last synchronized, see
+     * {@link #markSynced}.
+     *
+     * @return the changes, or <code>null</code> if they are unknown and the
+     *         source root has to be fully refreshed
+     */
+    static Changes takeChanges(IContainer rootResource) {
+        if (!Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"))) {
+            return null;
+        }
+        IPath location = rootResource.getLocation();
+        if (location == null) {
+            return null;
+        }
+        Path rootPath = location.toFile().toPath();
+        synchronized (lock) {
+            if (!ensureStarted()) {
+                return null;
+            }
+            drainEvents();
+            RootState state = roots.get(rootPath);
+            if (state == null) {
+                roots.put(rootPath, watch(rootPath));
+                return null;
+            }
+            if (state.untracked || state.registering) {
+                return null;
+            }
+            if (state.lost) {
+                // directories may have been created without being watched
+                untrack(state);
+                roots.put(rootPath, watch(rootPath));
+                return null;
+            }
+            if (!state.synced) {
+                // the changes before the full refresh are part of it
+                clear(state);
+                state.syncing = true;
+                return null;
+            }
+
+            List<Path> created = new ArrayList<>();
+            for (Path directory : sortByDepth(state.created)) {
+                if (created.stream().noneMatch(directory::startsWith)) {
+                    created.add(directory);
+                }
+            }
+            List<IContainer> changedDirectories = new ArrayList<>();
+            for (Path directory : sortByDepth(state.changed)) {
+                if (created.stream().noneMatch(directory::startsWith)) {
+                    changedDirectories.add(toContainer(rootResource, rootPath, directory));
+                }
+            }
+            List<IContainer> createdDirectories = new ArrayList<>();
+            for (Path directory : created) {
+                createdDirectories.add(toContainer(rootResource, rootPath, directory));
+            }
+            return new Changes(changedDirectories, createdDirectories, state);
+        }
+    }
+
+    /**
+     * Forget the changes of the source root once its refresh succeeded. The
+     * changes recorded since they were taken are kept.
+     *
+     * @param changes the changes taken, or <code>null</code> after a full refresh
+     */
+    static void markSynced(IContainer rootResource, Changes changes) {
+        IPath location = rootResource.getLocation();
+        if (location == null) {
+            return;
+        }
+        synchronized (lock) {
+            RootState state = roots.get(location.toFile().toPath());
+            if (state == null) {
+                return;
+            }
+            if (changes == null) {
+                state.synced = state.syncing;
+            } else if (changes.root == state) {
+                state.changed.removeAll(changes.changed);
+                state.created.removeAll(changes.created);
+                state.structuralChanges -= changes.structuralChanges;
+            }
+        }
+    }
+
+    static void shutdown() {
+        synchronized (lock) {
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException e) {
+                    // nothing to do
+                }
+                watchService = null;
+            }
+            if (registrar != null) {
+                registrar.shutdownNow();
+                registrar = null;
+            }
+            unavailable = false;
+            roots.clear();
+            registrations.clear();
+        }
+    }
+
+    private static RootState watch(Path rootPath) {
+        RootState state = new RootState();
+        WatchService service = watchService;
+        registrar.execute(() -> register(service, state, rootPath));
+        return state;
+    }
+
+    /**
+     * Register the directories of a source root, on the registrar thread.
+     */
+    private static void register(WatchService service, RootState state, Path rootPath) {
+        Map<WatchKey, Path> keys = new HashMap<>();
+        boolean registered;
+        try {
+            registered = walk(service, rootPath, new HashSet<>(), MAX_ROOT_DIRECTORIES, keys);
+        } catch (IOException | UnsupportedOperationException e) {
+            JdtlsExtActivator.logException("Failed to watch the source root " + rootPath, e);
+            registered = false;
+        } catch (ClosedWatchServiceException e) {
+            registered = false;
+        }
+        synchronized (lock) {
+            state.registering = false;
+            if (!registered || service != watchService || state.untracked || !addRegistrations(state, keys)) {
+                keys.keySet().forEach(WatchKey::cancel);
+                untrack(state);
+            }
+        }
+    }
+
+    /**
+     * @return whether a native watch service is available
+     */
+    private static boolean ensureStarted() {
+        if (watchService != null || unavailable) {
+            return watchService != null;
+        }
+        try {
+            WatchService service = FileSystems.getDefault().newWatchService();
+            if (service.getClass().getName().endsWith(POLLING_WATCH_SERVICE)) {
+                service.close();
+            } else {
+                watchService = service;
+                registrar = Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "Java Project Source Root Watcher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            JdtlsExtActivator.logException("Failed to create the source root watch service", e);
+        }
+        unavailable = watchService == null;
+        return watchService != null;
+    }
+
+    /**
+     * Register the directories of the tree which are not registered yet.
+     *
+     * @param keys the registered directories by their key, which are to be added
+     *        to the registrations or cancelled
+     * @return whether the tree has less than the maximum number of directories
+     */
+    private static boolean walk(WatchService service, Path directory, Set<Path> registered, int maxDirectories, Map<WatchKey, Path> keys)
+            throws IOException {
+        boolean[] complete = { true };
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (registered.contains(dir)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (keys.size() >= maxDirectories) {
+                    complete[0] = false;
+                    return FileVisitResult.TERMINATE;
+                }
+                keys.put(dir.register(service, ENTRY_CREATE, ENTRY_DELETE), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                // deleted in the meantime, its parent is marked as changed
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return complete[0];
+    }
+
+    /**
+     * @return whether the directories were added, or the watched directories would exceed the maximum
+     */
+    private static boolean addRegistrations(RootState state, Map<WatchKey, Path> keys) {
+        if (registrations.size() + keys.size() > MAX_WATCHED_DIRECTORIES) {
+            return false;
+        }
+        for (Map.Entry<WatchKey, Path> entry : keys.entrySet()) {
+            state.directories.add(entry.getValue());
+            registrations.put(entry.getKey(), new Registration(state, entry.getValue()));
+        }
+        return true;
+    }
+
+    private static void untrack(RootState state) {
+        state.untracked = true;
+        registrations.entrySet().removeIf(entry -> {
+            if (entry.getValue().root == state) {
+                entry.getKey().cancel();
+                return true;
+            }
+            return false;
+        });
+        state.directories.clear();
+        clear(state);
+    }
+
+    /**
+     * Process the events queued since the last call, including the ones of the
+     * directories created in the meantime, which are registered on the way.
+     */
+    private static void drainEvents() {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            Registration registration = registrations.get(key);
+            if (registration != null && !registration.root.untracked) {
+                processEvents(registration, key.pollEvents());
+            } else {
+                key.pollEvents();
+            }
+            if (!key.reset()) {
+                Registration removed = registrations.remove(key);
+                if (removed != null) {
+                    removed.root.directories.remove(removed.directory);
+                }
+            }
+        }
+    }
+
+    private static void processEvents(Registration registration, List<WatchEvent<?>> events) {
+        RootState state = registration.root;
+        for (WatchEvent<?> event : events) {
+            if (event.kind() == OVERFLOW) {
+                state.lost = true;
+                continue;
+            }
+            Path child = registration.directory.resolve((Path) event.context());
+            state.changed.add(registration.directory);
+            if (event.kind() == ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                state.structuralChanges++;
+                state.created.add(child);
+                registerCreatedTree(state, child);
+            } else if (event.kind() == ENTRY_DELETE && state.directories.contains(child)) {
+                state.structuralChanges++;
+            }
+        }
+    }
+
+    private static void registerCreatedTree(RootState state, Path directory) {
+        Map<WatchKey, Path> keys = new HashMap<>();
+        try {
+            if (walk(watchService, directory, state.directories, MAX_ROOT_DIRECTORIES - state.directories.size(), keys)
+                    && addRegistrations(state, keys)) {
+                return;
+            }
+            keys.keySet().forEach(WatchKey::cancel);
+            untrack(state);
+        } catch (IOException e) {
+            keys.keySet().forEach(WatchKey::cancel);
+            state.lost = true;
+        }
+    }
+
+    private static void clear(RootState state) {
+        state.changed.clear();
+        state.created.clear();
+        state.structuralChanges = 0;
+    }
+
+    private static List<Path> sortByDepth(Set<Path> directories) {
+        List<Path> result = new ArrayList<>(directories);
+        result.sort(Comparator.comparingInt(Path::getNameCount));
+        return result;
+    }
+
+    private static IContainer toContainer(IContainer rootResource, Path rootPath, Path directory) {
+        if (directory.equals(rootPath)) {
+            return rootResource;
+        }
+        return rootResource.getFolder(org.eclipse.core.runtime.Path.fromOSString(rootPath.relativize(directory).toString()));
+    }
+}
@@ -0,0 +1,371 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+
+import com.microsoft.jdtls.ext.core.model.NodeKind;
+import com.microsoft.jdtls.ext.core.model.PackageNode;
+import com.microsoft.jdtls.ext.core.model.TreeDelta;
+
+/**
+ * Pushes the structural changes of the source packages to the client, so that
+ * the explorer patches the affected nodes instead of querying their children
+ * again.
+ *
+ * The Java element deltas are collected per parent node and sent in batches
+ * through the client command {@link #CLIENT_COMMAND_ID}, as notifications so
+ * that the publishing job never waits for the client. Added and removed
+ * compilation units are sent as nodes and uris. The changes which cannot be
+ * expressed as a patch, like added or removed packages whose visibility
+ * depends on their siblings, or classpath changes, ask the client to reload
+ * the children of the parent node.
+ */
+public final class TreeDeltaPublisher {
+
+    public static final String COMMAND_ID = "java.project.enableTreeDeltas";
+
+    public static final String CLIENT_COMMAND_ID = "_java.view.package.internal.treeDelta";
+
+    // Delay to batch the deltas of a bulk change, e.g. a branch checkout
+    private static final long BATCH_DELAY_MS = 200;
+
+    private static final int PROJECT_CHANGE_FLAGS = IJavaElementDelta.F_CLASSPATH_CHANGED
+            | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED;
+
+    private static final Map<String, PendingDelta> pending = new LinkedHashMap<>();
+
+    private static final IElementChangedListener listener = event -> collect(event.getDelta());
+
+    private static final PublishJob publishJob = new PublishJob();
+
+    private static boolean enabled;
+
+    /**
+     * The changes of the children of one parent, whose nodes are created when
+     * the batch is published.
+     */
+    private static final class PendingDelta {
+        final IJavaElement parent;
+        final NodeKind parentKind;
+        final Map<String, IJavaElement> added = new LinkedHashMap<>();
+        final Set<String> removed = new LinkedHashSet<>();
+        final Map<String, IJavaElement> changed = new LinkedHashMap<>();
+        boolean reload;
+
+        PendingDelta(IJavaElement parent, NodeKind parentKind) {
+            this.parent = parent;
+            this.parentKind = parentKind;
+        }
+
+        void add(String uri, IJavaElement element) {
+            removed.remove(uri);
+            changed.remove(uri);
+            added.put(uri, element);
+        }
+
+        void remove(String uri) {
+            added.remove(uri);
+            changed.remove(uri);
+            removed.add(uri);
+        }
+
+        void change(String uri, IJavaElement element) {
+            if (added.containsKey(uri)) {
+                added.put(uri, element);
+            } else if (!removed.contains(uri)) {
+                changed.put(uri, element);
+            }
+        }
+    }
+
+    private TreeDeltaPublisher() {
+    }
+
+    /**
+     * Enable or disable the tree deltas. The first argument is a boolean.
+     *
+     * @return whether the tree deltas are enabled
+     */
+    public static boolean setEnabled(List<Object> arguments, IProgressMonitor monitor) {
+        boolean enable = CommandArguments.getBoolean(arguments, 0, true);
+        synchronized (pending) {
+            if (enable && !enabled) {
+                JavaCore.addElementChangedListener(listener, ElementChangedEvent.POST_CHANGE);
+            } else if (!enable && enabled) {
+                JavaCore.removeElementChangedListener(listener);
+                pending.clear();
+            }
+            enabled = enable;
+        }
+        return enable;
+    }
+
+    static void shutdown() {
+        synchronized (pending) {
+            if (enabled) {
+                JavaCore.removeElementChangedListener(listener);
+                enabled = false;
+            }
+            pending.clear();
+        }
+        publishJob.cancel();
+    }
+
+    private static void collect(IJavaElementDelta delta) {
+        synchronized (pending) {
+            if (!enabled) {
+                return;
+            }
+            processDelta(delta);
+            // a sleeping job would be delayed again, so that a long bulk change would never be published
+            if (!pending.isEmpty() && publishJob.getState() != Job.SLEEPING) {
+                publishJob.schedule(BATCH_DELAY_MS);
+            }
+        }
+    }
+
+    private static void processDelta(IJavaElementDelta delta) {
+        IJavaElement element = delta.getElement();
+        int kind = delta.getKind();
+        int flags = delta.getFlags();
+        switch (element.getElementType()) {
+            case IJavaElement.JAVA_MODEL:
+                break;
+            case IJavaElement.JAVA_PROJECT:
+                if (kind != IJavaElementDelta.CHANGED) {
+                    // the project list is not patched
+                    return;
+                }
+                if ((flags & PROJECT_CHANGE_FLAGS) != 0) {
+                    getPending(element, NodeKind.PROJECT).reload = true;
+                    return;
+                }
+                break;
+            case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+                if (kind != IJavaElementDelta.CHANGED) {
+                    // the roots may be grouped in containers
+                    getPending(element.getJavaProject(), NodeKind.PROJECT).reload = true;
+                    return;
+                }
+                if (((IPackageFragmentRoot) element).isArchive()) {
+                    return;
+                }
+                break;
+            case IJavaElement.PACKAGE_FRAGMENT:
+                if (kind != IJavaElementDelta.CHANGED) {
+                    // empty parent packages are hidden, the visible packages depend on the whole root
+                    getPending(element.getParent(), NodeKind.PACKAGEROOT).reload = true;
+                    return;
+                }
+                break;
+            case IJavaElement.COMPILATION_UNIT:
+                processCompilationUnitDelta(delta);
+                return;
+            default:
+                return;
+        }
+
+        for (IJavaElementDelta child : delta.getAffectedChildren()) {
+            processDelta(child);
+        }
+    }
+
+    private static void processCompilationUnitDelta(IJavaElementDelta delta) {
+        ICompilationUnit unit = (ICompilationUnit) delta.getElement();
+        IPackageFragment packageFragment = (IPackageFragment) unit.getParent();
+        PendingDelta parentDelta = packageFragment.isDefaultPackage()
+                ? getPending(packageFragment.getParent(), NodeKind.PACKAGEROOT)
+                : getPending(packageFragment, NodeKind.PACKAGE);
+        String uri = JDTUtils.toUri(unit);
+        switch (delta.getKind()) {
+            case IJavaElementDelta.ADDED:
+                parentDelta.add(uri, unit);
+                break;
+            case IJavaElementDelta.REMOVED:
+                parentDelta.remove(uri);
+                break;
+            default:
+                // the node changes only if the primary type is added, removed or renamed
+                if ((delta.getFlags() & IJavaElementDelta.F_CHILDREN) != 0 && isPrimaryTypeChanged(unit, delta)) {
+                    parentDelta.change(uri, unit);
+                }
+                break;
+        }
+    }
+
+    /**
+     * Whether the type named after the compilation unit is added or removed.
+     * A renamed type is removed under its old name and added under the new one.
+     */
+    private static boolean isPrimaryTypeChanged(ICompilationUnit unit, IJavaElementDelta delta) {
+        String primaryTypeName = JavaCore.removeJavaLikeExtension(unit.getElementName());
+        for (IJavaElementDelta child : delta.getAffectedChildren()) {
+            IJavaElement element = child.getElement();
+            if (element.getElementType() == IJavaElement.TYPE && child.getKind() != IJavaElementDelta.CHANGED
+                    && primaryTypeName.equals(element.getElementName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static PendingDelta getPending(IJavaElement parent, NodeKind parentKind) {
+        return pending.computeIfAbsent(parent.getHandleIdentifier(), key -> new PendingDelta(parent, parentKind));
+    }
+
+    private static List<TreeDelta> createDeltas(List<PendingDelta> batch) {
+        List<TreeDelta> result = new ArrayList<>();
+        Set<IJavaElement> reloadedRoots = new LinkedHashSet<>();
+        for (PendingDelta pendingDelta : batch) {
+            if (pendingDelta.reload && pendingDelta.parentKind == NodeKind.PACKAGEROOT) {
+                reloadedRoots.add(pendingDelta.parent);
+            }
+        }
+
+        for (PendingDelta pendingDelta : batch) {
+            String parentUri = getUri(pendingDelta.parent, pendingDelta.parentKind);
+            if (parentUri == null) {
+                continue;
+            }
+            TreeDelta delta = new TreeDelta(parentUri, pendingDelta.parentKind);
+            if (pendingDelta.reload) {
+                delta.reload = true;
+                result.add(delta);
+                continue;
+            }
+            for (Map.Entry<String, IJavaElement> entry : pendingDelta.added.entrySet()) {
+                delta.added.add(createNode(entry.getKey(), (ICompilationUnit) entry.getValue()));
+            }
+            for (Map.Entry<String, IJavaElement> entry : pendingDelta.changed.entrySet()) {
+                delta.changed.add(createNode(entry.getKey(), (ICompilationUnit) entry.getValue()));
+            }
+            delta.removed.addAll(pendingDelta.removed);
+            result.add(delta);
+
+            if (pendingDelta.parentKind == NodeKind.PACKAGE && isVisibilityChanged((IPackageFragment) pendingDelta.parent, pendingDelta)) {
+                IJavaElement root = pendingDelta.parent.getParent();
+                if (reloadedRoots.add(root)) {
+                    String rootUri = getUri(root, NodeKind.PACKAGEROOT);
+                    if (rootUri != null) {
+                        TreeDelta rootDelta = new TreeDelta(rootUri, NodeKind.PACKAGEROOT);
+                        rootDelta.reload = true;
+                        result.add(rootDelta);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A package containing only sub packages is hidden. It appears with its
+     * first compilation unit and disappears with its last one.
+     */
+    private static boolean isVisibilityChanged(IPackageFragment packageFragment, PendingDelta pendingDelta) {
+        if (pendingDelta.added.isEmpty() && pendingDelta.removed.isEmpty()) {
+            return false;
+        }
+        try {
+            if (!packageFragment.exists() || !packageFragment.hasSubpackages() || packageFragment.getNonJavaResources().length > 0) {
+                return false;
+            }
+            int children = packageFragment.getChildren().length;
+            return children == 0 || children <= pendingDelta.added.size();
+        } catch (JavaModelException e) {
+            return true;
+        }
+    }
+
+    private static PackageNode createNode(String uri, ICompilationUnit unit) {
+        IType primaryType = unit.exists() ? unit.findPrimaryType() : null;
+        if (primaryType != null) {
+            return PackageNode.createNodeForPrimaryType(primaryType);
+        }
+        PackageNode node = new PackageNode(unit.getElementName(), null, NodeKind.COMPILATIONUNIT);
+        node.setUri(uri);
+        IResource resource = unit.getResource();
+        if (resource != null) {
+            node.setPath(resource.getFullPath().toPortableString());
+        }
+        return node;
+    }
+
+    /**
+     * Get the uri of the parent node, in the same way as the nodes are created
+     * by {@link PackageNode}.
+     */
+    private static String getUri(IJavaElement parent, NodeKind parentKind) {
+        if (parentKind == NodeKind.PROJECT) {
+            return ProjectUtils.getProjectRealFolder(((IJavaProject) parent).getProject()).toFile().toURI().toString();
+        }
+        IResource resource = parent.getResource();
+        if (resource != null && resource.getLocationURI() != null) {
+            return resource.getLocationURI().toString();
+        }
+        return parent.getPath().toFile().toURI().toString();
+    }
+
+    private static final class PublishJob extends Job {
+
+        PublishJob() {
+            super("Publish Java project tree deltas");
+            setSystem(true);
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            List<PendingDelta> batch;
+            synchronized (pending) {
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+            }
+            if (batch.isEmpty() || monitor.isCanceled()) {
+                return Status.OK_STATUS;
+            }
+            try {
+                List<TreeDelta> deltas = createDeltas(batch);
+                if (!deltas.isEmpty()) {
+                    JavaLanguageServerPlugin.getInstance().getClientConnection().sendNotification(CLIENT_COMMAND_ID, deltas);
+                }
+            } catch (Exception e) {
+                JdtlsExtActivator.logException("Failed to publish the explorer tree deltas", e);
+            }
+            return Status.OK_STATUS;
+        }
+    }
+}
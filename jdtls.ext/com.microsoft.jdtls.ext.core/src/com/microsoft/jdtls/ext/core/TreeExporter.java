@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.ls.core.internal.ProjectUtils;
+import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
+import org.eclipse.lsp4j.jsonrpc.json.adapters.EnumTypeAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.microsoft.jdtls.ext.core.model.NodeKind;
+import com.microsoft.jdtls.ext.core.model.PackageNode;
+import com.microsoft.jdtls.ext.core.model.TreeExportResult;
+
+/**
+ * Exports the whole explorer tree of the workspace, i.e. the projects,
+ * containers, package roots, packages, types and resources, to a
+ * newline-delimited JSON file in the state location of the bundle.
+ *
+ * The children of each node are computed by the same loaders as
+ * <code>java.getPackageData</code>, without paging, without going through
+ * the snapshot cache and without refreshing the resources from the disk, so
+ * that the export reads the workspace as it is and leaves the caches of the
+ * explorer untouched. Each node is written as soon as it is computed, so only
+ * the children of the nodes on the current path are held in memory. The export
+ * runs in a job, whose progress is reported to the client per project.
+ */
+public final class TreeExporter {
+
+    public static final String COMMAND_ID = "java.project.exportTree";
+
+    static final String EXPORT_FILE_NAME = "workspace-tree.ndjson";
+
+    // Serializes the node kinds as the responses of the delegate commands
+    private static final Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new EnumTypeAdapter.Factory())
+            .create();
+
+    private TreeExporter() {
+    }
+
+    /**
+     * Export the tree and wait for the export to complete.
+     *
+     * @return the location of the file and the number of exported nodes
+     */
+    public static synchronized TreeExportResult exportTree(List<Object> arguments, IProgressMonitor monitor) throws CoreException {
+        Path target = Platform.getStateLocation(JdtlsExtActivator.getContext().getBundle()).append(EXPORT_FILE_NAME).toFile().toPath();
+        ExportJob job = new ExportJob(target);
+        job.schedule();
+        try {
+            job.join(0, monitor);
+        } catch (InterruptedException e) {
+            job.cancel();
+            Thread.currentThread().interrupt();
+            throw new OperationCanceledException();
+        } catch (OperationCanceledException e) {
+            job.cancel();
+            throw e;
+        }
+
+        IStatus status = job.getResult();
+        if (status == null || status.getSeverity() == IStatus.CANCEL) {
+            throw new OperationCanceledException();
+        }
+        if (!status.isOK()) {
+            throw new CoreException(status);
+        }
+        return job.result;
+    }
+
+    private static final class ExportJob extends Job {
+        private final Path target;
+        private final TreeExportResult result = new TreeExportResult();
+        private Writer writer;
+
+        ExportJob(Path target) {
+            super("Export Java project tree");
+            this.target = target;
+        }
+
+        @Override
+        protected IStatus run(IProgressMonitor monitor) {
+            long start = System.currentTimeMillis();
+            List<IProject> projects = new ArrayList<>();
+            for (IProject project : ProjectUtils.getAllProjects()) {
+                if (project.isAccessible() && !Objects.equals(project.getName(), ProjectsManager.DEFAULT_PROJECT_NAME)) {
+                    projects.add(project);
+                }
+            }
+
+            SubMonitor progress = SubMonitor.convert(monitor, getName(), projects.size());
+            // write to a temporary file first so readers never see a partial export
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                try (Writer output = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writer = output;
+                    // the children of the projects are queried as the client does
+                    PackageParams workspaceQuery = new PackageParams(NodeKind.WORKSPACE, null);
+                    for (IProject project : projects) {
+                        progress.subTask(project.getName());
+                        PackageNode projectNode = PackageNode.createNodeForProject(JavaCore.create(project));
+                        exportNode(workspaceQuery, projectNode, null, progress.split(1));
+                        result.projects++;
+                    }
+                } finally {
+                    writer = null;
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (OperationCanceledException e) {
+                deleteQuietly(temp);
+                return Status.CANCEL_STATUS;
+            } catch (IOException | CoreException e) {
+                deleteQuietly(temp);
+                return new Status(IStatus.ERROR, JdtlsExtActivator.PLUGIN_ID, "Failed to export the Java project tree", e);
+            }
+
+            result.path = target.toString();
+            result.durationMillis = System.currentTimeMillis() - start;
+            return Status.OK_STATUS;
+        }
+
+        /**
+         * Write the node, then its children and their descendants.
+         *
+         * @param parentQuery the query which returned the node
+         */
+        private void exportNode(PackageParams parentQuery, PackageNode node, Long parentId, IProgressMonitor monitor) throws IOException, CoreException {
+            if (monitor.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+            long id = ++result.nodes;
+            gson.toJson(new TreeExportResult.Line(id, parentId, node), writer);
+            writer.write('\n');
+
+            PackageParams query = PackageCommand.createChildQuery(parentQuery, node);
+            if (query == null) {
+                return;
+            }
+            // all the children, without a NodeKind.MORE placeholder
+            query.setLimit(Integer.MAX_VALUE);
+            for (PackageNode child : PackageCommand.loadChildren(query, monitor)) {
+                exportNode(query, child, id, monitor);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // nothing to do
+        }
+    }
+}
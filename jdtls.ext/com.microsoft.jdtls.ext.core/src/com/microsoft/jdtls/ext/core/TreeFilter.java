@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.eclipse.jdt.core.search.TypeNameMatch;
+import org.eclipse.jdt.core.search.TypeNameMatchRequestor;
+
+import com.microsoft.jdtls.ext.core.model.PackageNode;
+import com.microsoft.jdtls.ext.core.model.TreeFilterResult;
+
+/**
+ * Filters the explorer tree by the name of the types and the packages, without
+ * expanding the nodes.
+ *
+ * The types are looked up in the search index of JDT, which is maintained
+ * incrementally as the sources and the libraries change, by a case insensitive
+ * substring of their simple name or by the camel case of their name, e.g.
+ * <code>NPE</code> for <code>NullPointerException</code>. The packages are
+ * looked up by a case insensitive substring of their name in the package
+ * lookup tables of the projects. Only the nodes leading to a match are
+ * returned: the project, the container of a library, the package root, the
+ * package and the type. The packages are returned as in the flat view.
+ */
+public final class TreeFilter {
+
+    public static final String COMMAND_ID = "java.project.filterTree";
+
+    private static final int DEFAULT_LIMIT = 1000;
+
+    private static final int INCLUDE_MASK = IJavaSearchScope.SOURCES | IJavaSearchScope.APPLICATION_LIBRARIES
+            | IJavaSearchScope.SYSTEM_LIBRARIES;
+
+    private static final Comparator<PackageNode> NODE_ORDER = Comparator
+            .comparingInt((PackageNode node) -> node.getKind().getValue())
+            .thenComparing(PackageNode::getName, String.CASE_INSENSITIVE_ORDER);
+
+    private TreeFilter() {
+    }
+
+    /**
+     * Get the paths to the matching types and packages.
+     *
+     * @param arguments
+     *            the workspace folder uri as for <code>java.project.list</code>,
+     *            the query, and optionally the maximum number of matches
+     */
+    public static TreeFilterResult filterTree(List<Object> arguments, IProgressMonitor monitor) throws CoreException {
+        String workspaceUri = CommandArguments.getString(arguments, 0);
+        String query = CommandArguments.getString(arguments, 1);
+        Integer limit = CommandArguments.get(arguments, 2, Integer.class);
+        TreeFilterResult result = new TreeFilterResult();
+        result.nodes = new ArrayList<>();
+        if (workspaceUri == null || StringUtils.isBlank(query)) {
+            return result;
+        }
+        query = query.trim();
+
+        // the projects shown in the explorer
+        Map<IJavaProject, PackageNode> projectNodes = new LinkedHashMap<>();
+        for (PackageNode projectNode : ProjectCommand.listProjects(Arrays.<Object>asList(workspaceUri, Boolean.TRUE), monitor)) {
+            IJavaProject javaProject = PackageCommand.getJavaProject(projectNode.getUri());
+            if (javaProject != null && javaProject.exists()) {
+                projectNodes.put(javaProject, projectNode.copy());
+            }
+        }
+        if (projectNodes.isEmpty()) {
+            return result;
+        }
+
+        IJavaSearchScope scope = SearchEngine.createJavaSearchScope(projectNodes.keySet().toArray(new IJavaElement[0]), INCLUDE_MASK);
+        List<IJavaElement> matches = new ArrayList<>();
+        matches.addAll(searchPackages(query, scope, monitor));
+        matches.addAll(searchTypes(query, scope, monitor));
+
+        // a library shared by several projects is indexed once, but shown in each project
+        Map<IPath, List<IPackageFragmentRoot>> librariesByPath = new HashMap<>();
+        for (IJavaProject javaProject : projectNodes.keySet()) {
+            for (IPackageFragmentRoot root : javaProject.getPackageFragmentRoots()) {
+                if (root.getKind() == IPackageFragmentRoot.K_BINARY) {
+                    librariesByPath.computeIfAbsent(root.getPath(), path -> new ArrayList<>()).add(root);
+                }
+            }
+        }
+
+        int maxMatches = limit == null || limit <= 0 ? DEFAULT_LIMIT : limit;
+        TreeBuilder builder = new TreeBuilder();
+        Set<String> visited = new HashSet<>();
+        for (IJavaElement match : matches) {
+            if (monitor.isCanceled()) {
+                throw new OperationCanceledException();
+            }
+            IPackageFragmentRoot root = (IPackageFragmentRoot) match.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+            List<IPackageFragmentRoot> roots = root.getKind() == IPackageFragmentRoot.K_BINARY
+                    ? librariesByPath.getOrDefault(root.getPath(), Collections.singletonList(root))
+                    : Collections.singletonList(root);
+            for (IPackageFragmentRoot sameRoot : roots) {
+                PackageNode projectNode = projectNodes.get(sameRoot.getJavaProject());
+                if (projectNode == null) {
+                    continue;
+                }
+                try {
+                    IJavaElement element = sameRoot.equals(root) ? match : getSameElement(match, sameRoot);
+                    if (!visited.add(element.getHandleIdentifier())) {
+                        continue;
+                    }
+                    if (element instanceof IPackageFragment && !hasVisibleChildren((IPackageFragment) element)) {
+                        continue;
+                    }
+                    if (result.matches >= maxMatches) {
+                        result.truncated = true;
+                        break;
+                    }
+                    builder.add(projectNode, createPath(element, sameRoot));
+                    result.matches++;
+                } catch (JavaModelException e) {
+                    // e.g. the library was removed since it was indexed
+                }
+            }
+            if (result.truncated) {
+                break;
+            }
+        }
+
+        for (PackageNode projectNode : projectNodes.values()) {
+            if (builder.build(projectNode)) {
+                result.nodes.add(projectNode);
+            }
+        }
+        return result;
+    }
+
+    private static List<IPackageFragment> searchPackages(String query, IJavaSearchScope scope, IProgressMonitor monitor) throws CoreException {
+        List<IPackageFragment> packages = new ArrayList<>();
+        SearchPattern pattern = SearchPattern.createPattern("*" + query + "*", IJavaSearchConstants.PACKAGE,
+                IJavaSearchConstants.DECLARATIONS, SearchPattern.R_PATTERN_MATCH);
+        if (pattern == null) {
+            return packages;
+        }
+        SearchRequestor requestor = new SearchRequestor() {
+            @Override
+            public void acceptSearchMatch(SearchMatch match) {
+                Object element = match.getElement();
+                if (element instanceof IPackageFragment && !((IPackageFragment) element).isDefaultPackage()) {
+                    packages.add((IPackageFragment) element);
+                }
+            }
+        };
+        new SearchEngine().search(pattern, new SearchParticipant[] { SearchEngine.getDefaultSearchParticipant() }, scope,
+                requestor, monitor);
+        return packages;
+    }
+
+    private static List<IType> searchTypes(String query, IJavaSearchScope scope, IProgressMonitor monitor) throws CoreException {
+        // keyed by the handle, a type can match both as a substring and by camel case
+        Map<String, IType> types = new LinkedHashMap<>();
+        TypeNameMatchRequestor requestor = new TypeNameMatchRequestor() {
+            @Override
+            public void acceptTypeNameMatch(TypeNameMatch match) {
+                // only the primary types have a node
+                if (match.getTypeQualifiedName().indexOf('.') >= 0) {
+                    return;
+                }
+                IType type = match.getType();
+                ICompilationUnit unit = type.getCompilationUnit();
+                if (unit == null || JavaCore.removeJavaLikeExtension(unit.getElementName()).equals(type.getElementName())) {
+                    types.putIfAbsent(type.getHandleIdentifier(), type);
+                }
+            }
+        };
+        SearchEngine searchEngine = new SearchEngine();
+        searchEngine.searchAllTypeNames(null, SearchPattern.R_PATTERN_MATCH, query.toCharArray(), SearchPattern.R_SUBSTRING_MATCH,
+                IJavaSearchConstants.TYPE, scope, requestor, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+        if (query.chars().anyMatch(Character::isUpperCase)) {
+            // the camel case and the substring match rules cannot be combined
+            searchEngine.searchAllTypeNames(null, SearchPattern.R_PATTERN_MATCH, query.toCharArray(), SearchPattern.R_CAMELCASE_MATCH,
+                    IJavaSearchConstants.TYPE, scope, requestor, IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH, monitor);
+        }
+        return new ArrayList<>(types.values());
+    }
+
+    /**
+     * Get the element of a library as seen from another project using the same library.
+     */
+    private static IJavaElement getSameElement(IJavaElement element, IPackageFragmentRoot root) {
+        if (element instanceof IPackageFragment) {
+            return root.getPackageFragment(element.getElementName());
+        }
+        IType type = (IType) element;
+        return root.getPackageFragment(type.getPackageFragment().getElementName())
+                .getOrdinaryClassFile(type.getTypeRoot().getElementName()).getType();
+    }
+
+    private static boolean hasVisibleChildren(IPackageFragment packageFragment) throws JavaModelException {
+        return packageFragment.hasChildren() || packageFragment.getNonJavaResources().length > 0;
+    }
+
+    /**
+     * Get the nodes below the project leading to the element, as resolved by
+     * {@link PackageCommand#resolvePath}.
+     */
+    private static List<PackageNode> createPath(IJavaElement element, IPackageFragmentRoot root) throws JavaModelException {
+        List<PackageNode> path = new ArrayList<>();
+        if (root.getKind() == IPackageFragmentRoot.K_BINARY) {
+            path.add(PackageNode.createNodeForVirtualContainer(root));
+        }
+        // for invisible project, removing the '_' link name may cause an empty named package root
+        PackageNode rootNode = PackageNode.createNodeForPackageFragmentRoot(root);
+        if (StringUtils.isNotBlank(rootNode.getName())) {
+            path.add(rootNode);
+        }
+        IPackageFragment packageFragment = element instanceof IType ? ((IType) element).getPackageFragment() : (IPackageFragment) element;
+        if (!packageFragment.isDefaultPackage()) {
+            path.add(PackageNode.createNodeForPackageFragment(packageFragment));
+        }
+        if (element instanceof IType) {
+            path.add(PackageNode.createNodeForPrimaryType((IType) element));
+        }
+        return path;
+    }
+
+    /**
+     * Merges the paths to the matches into a tree.
+     */
+    private static final class TreeBuilder {
+        private final Map<PackageNode, Map<String, PackageNode>> childrenByNode = new IdentityHashMap<>();
+
+        void add(PackageNode projectNode, List<PackageNode> path) {
+            PackageNode parent = projectNode;
+            for (PackageNode node : path) {
+                Map<String, PackageNode> children = childrenByNode.computeIfAbsent(parent, key -> new LinkedHashMap<>());
+                // the nodes may be shared, e.g. the container of the referenced libraries
+                parent = children.computeIfAbsent(node.getKind() + ":" + node.getPath() + ":" + node.getName(), key -> node.copy());
+            }
+        }
+
+        /**
+         * Set the children of the node and its descendants.
+         *
+         * @return whether the node has children
+         */
+        boolean build(PackageNode node) {
+            Map<String, PackageNode> children = childrenByNode.get(node);
+            if (children == null) {
+                return false;
+            }
+            List<PackageNode> sorted = new ArrayList<>(children.values());
+            sorted.sort(NODE_ORDER);
+            for (PackageNode child : sorted) {
+                build(child);
+            }
+            node.setChildren(sorted);
+            return true;
+        }
+    }
+}
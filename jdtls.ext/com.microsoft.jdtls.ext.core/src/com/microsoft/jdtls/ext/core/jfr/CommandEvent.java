@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.microsoft.jdtls.ext.Command")
+@Label("Command")
+@Category({ "Java Language Server", "Java Project" })
+@Description("Execution of a delegate command of the Java project extension")
+class CommandEvent extends jdk.jfr.Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Outcome")
+    @Description("completed, cancelled or failed")
+    String outcome;
+}
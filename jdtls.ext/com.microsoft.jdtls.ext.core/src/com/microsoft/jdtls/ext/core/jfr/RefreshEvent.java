@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.microsoft.jdtls.ext.Refresh")
+@Label("Refresh Resource")
+@Category({ "Java Language Server", "Java Project" })
+@Description("Synchronization of a workspace resource with the file system")
+class RefreshEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    String path;
+
+    @Label("Depth")
+    @Description("0 for the resource only, 1 for its members, 2 for the whole subtree")
+    int depth;
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Microsoft Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Microsoft Corporation - initial API and implementation
+ *******************************************************************************/
+
+package com.microsoft.jdtls.ext.core.jfr;
+
+import org.eclipse.core.resources.IResource;
+
+/**
+ * Entry point to emit the JFR events of the extension, so that a flight
+ * recording of the language server shows the time spent in each command and
+ * in the main phases of the commands.
+ *
+ * The events are only created when the runtime provides <code>jdk.jfr</code>,
+ * and only filled in when they are enabled in the running recording, so the
+ * calls are cheap when nothing is recorded.
+ */
+public final class Tracer {
+
+    /**
+     * A started event, committed when closed.
+     */
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * A started command event, committed with the outcome of the command.
+     */
+    public interface CommandSpan {
+        void end(String outcome);
+    }
+
+    private static final Span NO_SPAN = () -> {
+    };
+
+    private static final CommandSpan NO_COMMAND_SPAN = outcome -> {
+    };
+
+    private static final boolean available = isAvailable();
+
+    private Tracer() {
+    }
+
+    public static CommandSpan command(String commandId) {
+        return available ? Events.command(commandId) : NO_COMMAND_SPAN;
+    }
+
+    public static Span refresh(IResource resource, int depth) {
+        return available ? Events.refresh(resource, depth) : NO_SPAN;
+    }
+
+    public static Span phase(String phase, String detail) {
+        return available ? Events.phase(phase, detail) : NO_SPAN;
+    }
+
+    public static Span exportJarEntry(String source, boolean artifact) {
+        return available ? Events.exportJarEntry(source, artifact) : NO_SPAN;
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, Tracer.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * The only class referring to the event types, so that they are never
+     * loaded when JFR is not available.
+     */
+    private static final class Events {
+
+        static CommandSpan command(String commandId) {
+            CommandEvent event = new CommandEvent();
+            if (!event.isEnabled()) {
+                return NO_COMMAND_SPAN;
+            }
+            event.command = commandId;
+            event.begin();
+            return outcome -> {
+                event.outcome = outcome;
+                event.commit();
+            };
+        }
+
+        static Span refresh(IResource resource, int depth) {
+            RefreshEvent event = new RefreshEvent();
+            if (!event.isEnabled()) {
+                return NO_SPAN;
+            }
+            event.path = resource.getFullPath().toString();
+            event.depth = depth;
+            event.begin();
+            return event::commit;
+        }
+
+        static Span phase(String phase, String detail) {
+            PhaseEvent event = new PhaseEvent();
+            if (!event.isEnabled()) {
+                return NO_SPAN;
+            }
+            event.phase = phase;
+            event.detail = detail;
+            event.begin();
+            return event::commit;
+        }
+
+        static Span exportJarEntry(String source, boolean artifact) {
+            ExportJarEntryEvent event = new ExportJarEntryEvent();
+            if (!event.isEnabled()) {
+                return NO_SPAN;
+            }
+            event.source = source;
+            event.artifact = artifact;
+            event.begin();
+            return event::commit;
+        }
+    }
+}
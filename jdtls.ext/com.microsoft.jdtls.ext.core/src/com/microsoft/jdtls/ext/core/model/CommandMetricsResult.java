@@ -0,0 +1,31 @@
+package com.microsoft.jdtls.ext.core.model;
+
+import java.util.List;
+
+/**
+ * Snapshot of the per-command metrics recorded by the delegate command handler.
+ * Latencies are in microseconds and are computed over the most recent samples.
+ */
+public class CommandMetricsResult {
+
+    public long timestamp;               // epoch millis when the snapshot was taken
+    public long uptimeMillis;            // time since the metrics were started or last reset
+    public List<CommandMetric> commands;
+
+    public static class CommandMetric {
+        public String command;           // "java.getPackageData"
+        public long calls;
+        public long errors;
+        public long cancellations;
+        public long inFlight;            // calls currently running
+        public long totalMicros;
+        public long maxMicros;
+        public long p50Micros;
+        public long p95Micros;
+        public long p99Micros;
+        public long allocatedBytes;      // -1 if allocation tracking is not supported by the runtime
+        public long avgAllocatedBytes;   // -1 if allocation tracking is not supported by the runtime
+
+        public CommandMetric() {}
+    }
+}
@@ -0,0 +1,37 @@
+package com.microsoft.jdtls.ext.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact encoding of a list of {@link PackageNode}, returned instead of the
+ * list when the client asks for it.
+ *
+ * The names are indexes in {@link #strings}. The path, the uri and the handler
+ * identifier of a node are front coded: the length of the prefix shared with
+ * the same field of the previous node, and the rest of the value. The nodes are
+ * encoded in depth-first order, a node before its children. The metadata
+ * keys are indexes in {@link #strings} and the metadata values are indexes in
+ * {@link #values}, where equal values are stored once.
+ */
+public class CompactPackageData {
+    public static final int FORMAT = 1;
+
+    public int format = FORMAT;
+    public List<String> strings = new ArrayList<>();     // names and metadata keys
+    public List<Object> values = new ArrayList<>();      // distinct metadata values
+    public List<Node> nodes = new ArrayList<>();
+
+    public static class Node {
+        public int k;                // NodeKind value
+        public Integer n;            // name, index in strings
+        public Integer d;            // display name, index in strings
+        public Integer mn;           // module name, index in strings
+        public List<Object> p;       // path, [length of the prefix shared with the previous path, rest of the path]
+        public List<Object> u;       // uri, front coded as the path
+        public List<Object> h;       // handler identifier, front coded as the path
+        public int[] m;              // metadata, pairs of key index in strings and value index in values
+        public Integer e;            // entry kind of a package root or a container
+        public List<Node> c;         // children
+    }
+}
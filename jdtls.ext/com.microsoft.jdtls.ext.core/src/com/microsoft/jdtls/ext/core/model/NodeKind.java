@@ -30,7 +30,9 @@ public enum NodeKind {
 
     FOLDER(9),
 
-    FILE(10);
+    FILE(10),
+
+    MORE(11);
 
     private final int value;
 
@@ -13,7 +13,6 @@ package com.microsoft.jdtls.ext.core.model;
 
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,19 +36,20 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
-import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
-import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
 import org.eclipse.jdt.internal.core.JrtPackageFragmentRoot;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.ProjectUtils;
 
 import com.microsoft.jdtls.ext.core.ExtUtils;
 import com.microsoft.jdtls.ext.core.JdtlsExtActivator;
+import com.microsoft.jdtls.ext.core.NodeProjection;
+import com.microsoft.jdtls.ext.core.ProjectNodeCache;
+import com.microsoft.jdtls.ext.core.ProjectNodeCache.ProjectInfo;
 
 /**
  * Represent a PackageNode in the project view.
  */
-public class PackageNode {
+public class PackageNode implements Cloneable {
 
     public static final String K_TYPE_KIND = "TypeKind";
 
@@ -68,6 +68,12 @@ public class PackageNode {
      */
     public static final int K_ENUM = 3;
 
+    /**
+     * Metadata of a {@link NodeKind#MORE} node: the offset of the next page of children.
+     * It is an index in the children before they are filtered, to pass back as is.
+     */
+    public static final String K_NEXT_OFFSET = "NextOffset";
+
     public static final String REFERENCED_LIBRARIES_PATH = "REFERENCED_LIBRARIES_PATH";
     private static final String REFERENCED_LIBRARIES_CONTAINER_NAME = "Referenced Libraries";
     public static final ContainerNode REFERENCED_LIBRARIES_CONTAINER = new ContainerNode(
@@ -155,6 +161,10 @@ public class PackageNode {
         return metaData;
     }
 
+    public void setMetaData(Map<String, Object> metaData) {
+        this.metaData = metaData;
+    }
+
     public void setMetaDataValue(String key, Object value) {
         if (this.metaData == null) {
             this.metaData = new HashMap<>();
@@ -169,20 +179,16 @@ public class PackageNode {
         IProject proj = javaElement.getJavaProject().getProject();
         PackageNode projectNode = new PackageNode(proj.getName(), proj.getFullPath().toPortableString(),
                 NodeKind.PROJECT);
-        projectNode.setUri(ProjectUtils.getProjectRealFolder(proj).toFile().toURI().toString());
-        try {
-            List<String> natureIds = new ArrayList<>(Arrays.asList(proj.getDescription().getNatureIds()));
-            if (!ProjectUtils.isVisibleProject(proj)) {
+        ProjectInfo info = ProjectNodeCache.getInfo(javaElement.getJavaProject());
+        projectNode.setUri(info.getUri());
+        if (info.getNatureIds() != null) {
+            List<String> natureIds = new ArrayList<>(info.getNatureIds());
+            if (info.getUnmanagedFolderInnerPath() != null) {
                 natureIds.add(UNMANAGED_FOLDER_NATURE_ID);
-                projectNode.setMetaDataValue(UNMANAGED_FOLDER_INNER_PATH, proj.getLocationURI().toString());
+                projectNode.setMetaDataValue(UNMANAGED_FOLDER_INNER_PATH, info.getUnmanagedFolderInnerPath());
             }
             projectNode.setMetaDataValue(NATURE_ID, natureIds);
-            String sourceVersion = javaElement.getJavaProject().getOption(JavaCore.COMPILER_SOURCE, true);
-            int jdkLevel = (int) (CompilerOptions.versionToJdkLevel(sourceVersion, true) >>> 16);
-            int majorVersion = Math.max(0, jdkLevel - ClassFileConstants.MAJOR_VERSION_0);
-            projectNode.setMetaDataValue(MAX_SOURCE_VERSION, majorVersion);
-        } catch (CoreException e) {
-            // do nothing
+            projectNode.setMetaDataValue(MAX_SOURCE_VERSION, info.getMaxSourceVersion());
         }
         return projectNode;
     }
@@ -237,6 +243,16 @@ public class PackageNode {
 
     public static PackageRootNode createNodeForPackageFragmentRoot(IPackageFragmentRoot pkgRoot)
             throws JavaModelException {
+        return createNodeForPackageFragmentRoot(pkgRoot, null);
+    }
+
+    /**
+     * Create the node of a package root, without looking up the module name,
+     * or the classpath attributes the Maven display name is computed from,
+     * when the projection does not request them.
+     */
+    public static PackageRootNode createNodeForPackageFragmentRoot(IPackageFragmentRoot pkgRoot, NodeProjection projection)
+            throws JavaModelException {
         PackageRootNode node;
         String displayName = pkgRoot.getElementName();
         boolean isSourcePath = pkgRoot.getKind() == IPackageFragmentRoot.K_SOURCE;
@@ -262,14 +278,15 @@ public class PackageNode {
         }
 
         node.setHandlerIdentifier(pkgRoot.getHandleIdentifier());
-        if (pkgRoot instanceof JrtPackageFragmentRoot) {
+        if (pkgRoot instanceof JrtPackageFragmentRoot && NodeProjection.isRequested(projection, NodeProjection.MODULE_NAME)) {
             IModuleDescription moduleDescription = pkgRoot.getModuleDescription();
             if (moduleDescription != null) {
                 node.setModuleName(moduleDescription.getElementName());
             }
         }
 
-        IClasspathEntry resolvedClasspathEntry = pkgRoot.getResolvedClasspathEntry();
+        IClasspathEntry resolvedClasspathEntry = NodeProjection.isRequested(projection, NodeProjection.DISPLAY_NAME)
+                || NodeProjection.isRequested(projection, NodeProjection.META_DATA) ? pkgRoot.getResolvedClasspathEntry() : null;
         if (resolvedClasspathEntry != null) {
             for (IClasspathAttribute attribute : resolvedClasspathEntry.getExtraAttributes()) {
                 node.setMetaDataValue(attribute.getName(), attribute.getValue());
@@ -345,6 +362,19 @@ public class PackageNode {
         return null;
     }
 
+    /**
+     * Create the placeholder of the children which are not returned in a page.
+     * It is labeled without a count, since some of the remaining children may
+     * be filtered out when they are visited.
+     *
+     * @param nextOffset the offset of the next page
+     */
+    public static PackageNode createNodeForMoreChildren(int nextOffset) {
+        PackageNode node = new PackageNode("Load more...", null, NodeKind.MORE);
+        node.setMetaDataValue(K_NEXT_OFFSET, nextOffset);
+        return node;
+    }
+
     public static PackageNode createNodeForPrimaryType(IType type) {
         PackageNode primaryTypeNode = new PackageNode(type.getElementName(), type.getPath().toPortableString(),
                 NodeKind.PRIMARYTYPE);
@@ -384,6 +414,10 @@ public class PackageNode {
         return name;
     }
 
+    public String getDisplayName() {
+        return displayName;
+    }
+
     public void setDisplayName(String displayName) {
         this.displayName = displayName;
     }
@@ -423,4 +457,16 @@ public class PackageNode {
     public void setChildren(List<PackageNode> children) {
         this.children = children;
     }
+
+    /**
+     * Get a shallow copy of the node, whose children can be set without
+     * changing the children of this node.
+     */
+    public PackageNode copy() {
+        try {
+            return (PackageNode) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
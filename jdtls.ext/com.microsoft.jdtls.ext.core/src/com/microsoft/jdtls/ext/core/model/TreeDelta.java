@@ -0,0 +1,25 @@
+package com.microsoft.jdtls.ext.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Structural change of the children of one explorer node, pushed to the client
+ * so that it can patch its tree instead of querying the children again.
+ */
+public class TreeDelta {
+
+    public String parentUri;             // uri of the node whose children changed
+    public NodeKind parentKind;          // PROJECT | PACKAGEROOT | PACKAGE
+    public List<PackageNode> added = new ArrayList<>();
+    public List<String> removed = new ArrayList<>();        // uris of the removed children
+    public List<PackageNode> changed = new ArrayList<>();   // children whose data changed, matched by uri
+    public boolean reload;               // true if the children cannot be patched and must be queried again
+
+    public TreeDelta() {}
+
+    public TreeDelta(String parentUri, NodeKind parentKind) {
+        this.parentUri = parentUri;
+        this.parentKind = parentKind;
+    }
+}
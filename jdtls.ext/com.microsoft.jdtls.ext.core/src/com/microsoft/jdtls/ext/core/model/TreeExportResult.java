@@ -0,0 +1,29 @@
+package com.microsoft.jdtls.ext.core.model;
+
+/**
+ * Result of the export of the workspace tree to a newline-delimited JSON file.
+ * Each line of the file is a {@link Line}, the parents before their children.
+ */
+public class TreeExportResult {
+
+    public String path;                  // absolute path of the exported file
+    public int projects;                 // number of exported projects
+    public long nodes;                   // number of exported nodes, i.e. lines
+    public long durationMillis;
+
+    public TreeExportResult() {}
+
+    public static class Line {
+        public long id;                  // 1-based position of the line in the file
+        public Long parent;              // id of the parent node, null for the projects
+        public PackageNode node;         // the node, without its children
+
+        public Line() {}
+
+        public Line(long id, Long parent, PackageNode node) {
+            this.id = id;
+            this.parent = parent;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.microsoft.jdtls.ext.core.model;
+
+import java.util.List;
+
+/**
+ * Result of the filtering of the explorer tree by a type or package name.
+ * The projects only contain the nodes leading to the matching packages and
+ * types, with their children already set.
+ */
+public class TreeFilterResult {
+
+    public List<PackageNode> nodes;      // the projects containing a match
+    public int matches;                  // number of matching packages and types
+    public boolean truncated;            // whether matches were dropped because of the limit
+
+    public TreeFilterResult() {}
+}
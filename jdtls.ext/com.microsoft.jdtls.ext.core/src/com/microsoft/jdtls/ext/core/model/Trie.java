@@ -21,12 +21,19 @@ public class Trie<T> {
     private TrieNode<T> root = new TrieNode<>();
     private Set<TrieNode<T>> allNodes = new HashSet<>();
 
+    public Trie() {
+    }
+
     public Trie(Map<String, T> entries) {
         for (Map.Entry<String, T> entry : entries.entrySet()) {
             insert(entry.getKey(), entry.getValue());
         }
     }
 
+    public TrieNode<T> getRoot() {
+        return root;
+    }
+
     public Set<TrieNode<T>> getAllNodes() {
         return allNodes;
     }
@@ -39,22 +46,77 @@ public class Trie<T> {
             return;
         }
 
-        String[] names = name.split("\\.");
         TrieNode<T> currentNode = this.root;
-        for (int i = 0; i < names.length; i++) {
-            TrieNode<T> node;
-            if (currentNode.children.containsKey(names[i])) {
-                node = currentNode.children.get(names[i]);
-            } else {
-                node = new TrieNode<T>(names[i], null);
-                currentNode.children.put(names[i], node);
+        int start = 0;
+        while (true) {
+            int end = name.indexOf('.', start);
+            String segment = end < 0 ? name.substring(start) : name.substring(start, end);
+            TrieNode<T> node = currentNode.children.get(segment);
+            if (node == null) {
+                node = new TrieNode<T>(segment, null);
+                currentNode.children.put(segment, node);
                 allNodes.add(node);
             }
-            if (i == names.length - 1) {
+            if (end < 0) {
                 node.value = value;
+                return;
             }
 
             currentNode = node;
+            start = end + 1;
+        }
+    }
+
+    /**
+     * @return the node of the name, or <code>null</code> if there is none
+     */
+    public TrieNode<T> find(String name) {
+        if (StringUtils.isBlank(name)) {
+            return root;
+        }
+
+        TrieNode<T> currentNode = this.root;
+        int start = 0;
+        while (currentNode != null) {
+            int end = name.indexOf('.', start);
+            String segment = end < 0 ? name.substring(start) : name.substring(start, end);
+            currentNode = currentNode.children.get(segment);
+            if (end < 0) {
+                return currentNode;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Remove the value of the name. The nodes left without value and children
+     * are removed as well.
+     */
+    public void remove(String name) {
+        if (StringUtils.isBlank(name)) {
+            root.value = null;
+            allNodes.remove(root);
+            return;
+        }
+        remove(root, name, 0);
+    }
+
+    private void remove(TrieNode<T> parent, String name, int start) {
+        int end = name.indexOf('.', start);
+        String segment = end < 0 ? name.substring(start) : name.substring(start, end);
+        TrieNode<T> node = parent.children.get(segment);
+        if (node == null) {
+            return;
+        }
+        if (end < 0) {
+            node.value = null;
+        } else {
+            remove(node, name, end + 1);
+        }
+        if (node.value == null && node.children.isEmpty()) {
+            parent.children.remove(segment);
+            allNodes.remove(node);
         }
     }
 }
@@ -180,6 +180,9 @@ public class ContextResolver {
             // This is used when findType() doesn't return results or fails
             IPackageFragmentRoot[] packageRoots = javaProject.getPackageFragmentRoots();
             for (IPackageFragmentRoot packageRoot : packageRoots) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
                 if (packageRoot.getKind() == IPackageFragmentRoot.K_SOURCE) {
                     org.eclipse.jdt.core.IPackageFragment packageFragment = packageRoot.getPackageFragment(packageName);
                     if (packageFragment != null && packageFragment.exists()) {
@@ -411,7 +414,7 @@ public class ContextResolver {
             List<ImportClassInfo> classInfoList, Set<String> processedTypes, 
             int maxMethods, IProgressMonitor monitor) {
         try {
-            if (processedTypes.contains(typeName)) {
+            if (processedTypes.contains(typeName) || monitor.isCanceled()) {
                 return;
             }
             
@@ -453,6 +456,9 @@ public class ContextResolver {
             // Find all package fragments with this name
             IPackageFragmentRoot[] packageRoots = javaProject.getPackageFragmentRoots();
             for (IPackageFragmentRoot packageRoot : packageRoots) {
+                if (monitor.isCanceled()) {
+                    return;
+                }
                 if (packageRoot.getKind() == IPackageFragmentRoot.K_SOURCE) {
                     org.eclipse.jdt.core.IPackageFragment packageFragment = packageRoot.getPackageFragment(packageName);
                     if (packageFragment != null && packageFragment.exists()) {
@@ -463,6 +469,9 @@ public class ContextResolver {
                             // Get all types in the compilation unit
                             org.eclipse.jdt.core.IType[] types = cu.getAllTypes();
                             for (org.eclipse.jdt.core.IType type : types) {
+                                if (monitor.isCanceled()) {
+                                    return;
+                                }
                                 String fullTypeName = type.getFullyQualifiedName();
                                 if (!processedTypes.contains(fullTypeName)) {
                                     processedTypes.add(fullTypeName);
@@ -486,6 +495,9 @@ public class ContextResolver {
      */
     public static void extractTypeInfo(org.eclipse.jdt.core.IType type, List<ImportClassInfo> classInfoList, 
             IProgressMonitor monitor) {
+        if (monitor.isCanceled()) {
+            return;
+        }
         try {
             // Get file URI
             String uri = getTypeUri(type);
@@ -13,6 +13,7 @@ package com.microsoft.jdtls.ext.core.parser;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -35,22 +36,38 @@ import com.microsoft.jdtls.ext.core.model.PackageNode;
 
 public class JavaResourceVisitor implements ResourceVisitor {
 
+    // The first chunk is roughly one screen of the explorer, so it can be rendered early.
+    private static final int FIRST_CHUNK_SIZE = 50;
+    private static final int CHUNK_SIZE = 500;
+
     private IJavaProject project;
     private List<PackageNode> nodes;
+    private Consumer<List<PackageNode>> partialResultConsumer;
+    private int nextChunkSize = FIRST_CHUNK_SIZE;
 
     public JavaResourceVisitor(IJavaProject project) {
+        this(project, null);
+    }
+
+    /**
+     * @param partialResultConsumer when not null, the visited nodes are handed
+     *        over to it in chunks, and {@link #getNodes()} only returns the nodes
+     *        that have not been handed over yet.
+     */
+    public JavaResourceVisitor(IJavaProject project, Consumer<List<PackageNode>> partialResultConsumer) {
         this.project = project;
         this.nodes = new LinkedList<>();
+        this.partialResultConsumer = partialResultConsumer;
     }
 
     @Override
     public void visit(IPackageFragment fragment) {
-        this.nodes.add(PackageNode.createNodeForPackageFragment(fragment));
+        addNode(PackageNode.createNodeForPackageFragment(fragment));
     }
 
     @Override
     public void visit(IType type) {
-        this.nodes.add(PackageNode.createNodeForPrimaryType(type));
+        addNode(PackageNode.createNodeForPrimaryType(type));
     }
 
     @Override
@@ -61,7 +78,7 @@ public class JavaResourceVisitor implements ResourceVisitor {
         if (resource != null) {
             node.setPath(resource.getFullPath().toPortableString());
         }
-        this.nodes.add(node);
+        addNode(node);
     }
 
     @Override
@@ -72,17 +89,17 @@ public class JavaResourceVisitor implements ResourceVisitor {
         if (resource != null) {
             node.setPath(resource.getFullPath().toPortableString());
         }
-        this.nodes.add(node);
+        addNode(node);
     }
 
     @Override
     public void visit(IFile file) {
-        this.nodes.add(PackageNode.createNodeForFile(file));
+        addNode(PackageNode.createNodeForFile(file));
     }
 
     @Override
     public void visit(IFolder folder) {
-        this.nodes.add(PackageNode.createNodeForFolder(folder));
+        addNode(PackageNode.createNodeForFolder(folder));
     }
 
     @Override
@@ -91,7 +108,7 @@ public class JavaResourceVisitor implements ResourceVisitor {
         PackageNode node = new PackageNode(jarEntryResource.getName(),
             jarEntryResource.getFullPath().toPortableString(), kind);
         node.setUri(ExtUtils.toUri(jarEntryResource));
-        this.nodes.add(node);
+        addNode(node);
     }
 
     @Override
@@ -106,14 +123,14 @@ public class JavaResourceVisitor implements ResourceVisitor {
         }
 
         if (node != null) {
-            this.nodes.add(node);
+            addNode(node);
         }
     }
 
     @Override
     public void visit(IPackageFragmentRoot packageFragmentRoot) {
         try {
-            this.nodes.add(PackageNode.createNodeForPackageFragmentRoot(packageFragmentRoot));
+            addNode(PackageNode.createNodeForPackageFragmentRoot(packageFragmentRoot));
         } catch (JavaModelException e) {
             JdtlsExtActivator.log(e);
         }
@@ -123,4 +140,13 @@ public class JavaResourceVisitor implements ResourceVisitor {
     public List<PackageNode> getNodes() {
         return nodes;
     }
+
+    private void addNode(PackageNode node) {
+        this.nodes.add(node);
+        if (partialResultConsumer != null && this.nodes.size() >= nextChunkSize) {
+            partialResultConsumer.accept(this.nodes);
+            this.nodes = new LinkedList<>();
+            nextChunkSize = CHUNK_SIZE;
+        }
+    }
 }
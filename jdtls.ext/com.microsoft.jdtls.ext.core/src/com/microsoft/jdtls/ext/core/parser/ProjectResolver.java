@@ -27,6 +27,8 @@ import org.eclipse.jdt.launching.JavaRuntime;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 
 import com.microsoft.jdtls.ext.core.JdtlsExtActivator;
+import com.microsoft.jdtls.ext.core.jfr.Tracer;
+import com.microsoft.jdtls.ext.core.jfr.Tracer.Span;
 
 public class ProjectResolver {
 
@@ -276,11 +278,18 @@ public class ProjectResolver {
             addBasicProjectInfo(result, project, javaProject);
             
             // Get classpath entries (dependencies)
-            processClasspathEntries(result, javaProject, monitor);
+            try (Span span = Tracer.phase("processClasspathEntries", project.getName())) {
+                processClasspathEntries(result, javaProject, monitor);
+            }
             
             // Add build tool info by checking for build files
             detectBuildTool(result, project);
 
+            // Never cache a partial result
+            if (monitor.isCanceled()) {
+                return result;
+            }
+
             // Store in cache
             dependencyCache.put(cacheKey, new CachedDependencyInfo(result, currentClasspathHash));
             
@@ -11,9 +11,13 @@
 
 package com.microsoft.jdtls.ext.core.parser;
 
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import org.eclipse.core.internal.utils.FileUtil;
 import org.eclipse.core.resources.IContainer;
@@ -23,7 +27,9 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.IClassFile;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.ICompilationUnit;
@@ -38,12 +44,15 @@ import org.eclipse.jdt.ls.core.internal.ProjectUtils;
 import com.microsoft.jdtls.ext.core.JdtlsExtActivator;
 import com.microsoft.jdtls.ext.core.PackageCommand;
 
-// TODO: progress monitor
 public class ResourceSet {
 
     private List<Object> resources;
     private boolean isHierarchicalView;
 
+    // Computed once per set of resources, i.e. per request
+    private Map<IProject, Set<IPath>> sourceEntryPrefixes = new HashMap<>();
+    private Map<IContainer, Boolean> visibleNonJavaResources = new HashMap<>();
+
     public ResourceSet(List<Object> resources) {
         this(resources, false);
     }
@@ -54,8 +63,20 @@ public class ResourceSet {
     }
 
     public void accept(ResourceVisitor visitor) {
+        accept(visitor, new NullProgressMonitor());
+    }
+
+    /**
+     * Visit the resources, checking the monitor before each of them.
+     *
+     * @throws OperationCanceledException if the monitor is cancelled
+     */
+    public void accept(ResourceVisitor visitor, IProgressMonitor monitor) {
         ListIterator<Object> iterator = resources.listIterator();
         while (iterator.hasNext()) {
+            if (monitor.isCanceled()) {
+                throw new OperationCanceledException();
+            }
             Object resource = iterator.next();
             if (resource == null) {
                 continue;
@@ -75,7 +96,7 @@ public class ResourceSet {
                         Objects.equals(ProjectUtils.WORKSPACE_LINK, pkgRoot.getElementName())) {
                     try {
                         List<Object> nextObjs = PackageCommand.getPackageFragmentRootContent(
-                            pkgRoot, isHierarchicalView, new NullProgressMonitor());
+                            pkgRoot, isHierarchicalView, monitor);
                         for (Object nextObj : nextObjs) {
                             iterator.add(nextObj);
                             iterator.previous();
@@ -91,7 +112,7 @@ public class ResourceSet {
                 IPackageFragment fragment = (IPackageFragment) resource;
                 // skip default package and add its children to the iterator.
                 if (fragment.isDefaultPackage()) {
-                    List<Object> nextObjs = PackageCommand.getChildrenForPackage(fragment, new NullProgressMonitor());
+                    List<Object> nextObjs = PackageCommand.getChildrenForPackage(fragment, monitor);
                     for (Object nextObj : nextObjs) {
                         iterator.add(nextObj);
                         iterator.previous();
@@ -157,28 +178,53 @@ public class ResourceSet {
     }
 
     private boolean containsSourceClasspathEntry(IContainer container) {
+        IProject project = container.getProject();
+        Set<IPath> prefixes = sourceEntryPrefixes.get(project);
+        if (prefixes == null) {
+            prefixes = getSourceEntryPrefixes(project);
+            sourceEntryPrefixes.put(project, prefixes);
+        }
+        return prefixes.contains(container.getFullPath());
+    }
+
+    /**
+     * Get the paths of the source entries of the project and all their
+     * parents, i.e. the containers which contain a source entry. The output
+     * location is excluded.
+     */
+    private static Set<IPath> getSourceEntryPrefixes(IProject project) {
+        Set<IPath> prefixes = new HashSet<>();
         try {
-            IJavaProject javaProject = JavaCore.create(container.getProject());
+            IJavaProject javaProject = JavaCore.create(project);
             if (javaProject == null) {
-                return false;
-            }
-            IPath containerPath = container.getFullPath();
-            if (containerPath.equals(javaProject.getOutputLocation())) {
-                return false;
+                return prefixes;
             }
             for (IClasspathEntry entry : javaProject.getRawClasspath()) {
-                if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE
-                        && containerPath.isPrefixOf(entry.getPath())) {
-                    return true;
+                if (entry.getEntryKind() == IClasspathEntry.CPE_SOURCE) {
+                    for (IPath path = entry.getPath(); path.segmentCount() > 0; path = path.removeLastSegments(1)) {
+                        if (!prefixes.add(path)) {
+                            break;
+                        }
+                    }
                 }
             }
+            prefixes.remove(javaProject.getOutputLocation());
         } catch (CoreException e) {
             JdtlsExtActivator.logException("Failed to inspect Java source entries", e);
         }
-        return false;
+        return prefixes;
     }
 
     private boolean hasVisibleNonJavaResources(IContainer container) {
+        Boolean visible = visibleNonJavaResources.get(container);
+        if (visible == null) {
+            visible = computeVisibleNonJavaResources(container);
+            visibleNonJavaResources.put(container, visible);
+        }
+        return visible;
+    }
+
+    private boolean computeVisibleNonJavaResources(IContainer container) {
         try {
             for (IResource member : container.members()) {
                 if (JavaCore.create(member) != null) {
@@ -28,6 +28,12 @@ export namespace Commands {
 
     export const VIEW_PACKAGE_INTERNAL_ADD_PROJECTS = "_java.view.package.internal.addProjects";
 
+    export const VIEW_PACKAGE_INTERNAL_PARTIAL_RESULT = "_java.view.package.internal.partialResult";
+
+    export const VIEW_PACKAGE_INTERNAL_TREE_DELTA = "_java.view.package.internal.treeDelta";
+
+    export const VIEW_PACKAGE_INTERNAL_LOAD_MORE = "_java.view.package.internal.loadMore";
+
     export const VIEW_PACKAGE_OUTLINE = "java.view.package.outline";
 
     export const VIEW_PACKAGE_REVEAL_FILE_OS = "java.view.package.revealFileInOS";
@@ -146,6 +152,16 @@ export namespace Commands {
 
     export const JAVA_PROJECT_GET_FILE_IMPORTS = "java.project.getFileImports";
 
+    export const JAVA_PROJECT_BATCH = "java.project.batch";
+
+    export const JAVA_PROJECT_ENABLE_TREE_DELTAS = "java.project.enableTreeDeltas";
+
+    export const JAVA_PROJECT_FILTER_TREE = "java.project.filterTree";
+
+    export const JAVA_PROJECT_EXPORT_TREE = "java.project.exportTree";
+
+    export const JAVA_PROJECT_CLEAR_CACHES = "java.project.clearCaches";
+
     export const JAVA_UPGRADE_WITH_COPILOT = "_java.upgradeWithCopilot";
 
     /**
@@ -82,24 +82,16 @@ async function resolveJavaContext(request: ResolveRequest, copilotCancel: vscode
         // Check for cancellation before starting
         JavaContextProviderUtils.checkCancellation(copilotCancel);
 
-        // Resolve project dependencies and convert to context items
-        dependenciesResult = await CopilotHelper.resolveAndConvertProjectDependencies(
+        // Resolve project dependencies and local imports in one round-trip, and convert them to context items
+        const contextResult = await CopilotHelper.resolveAndConvertContext(
             vscode.window.activeTextEditor,
             copilotCancel,
             JavaContextProviderUtils.checkCancellation
         );
+        dependenciesResult = contextResult.dependenciesResult;
+        importsResult = contextResult.importsResult;
         JavaContextProviderUtils.checkCancellation(copilotCancel);
         items.push(...dependenciesResult.items);
-
-        JavaContextProviderUtils.checkCancellation(copilotCancel);
-
-        // Resolve local imports and convert to context items
-        importsResult = await CopilotHelper.resolveAndConvertLocalImports(
-            vscode.window.activeTextEditor,
-            copilotCancel,
-            JavaContextProviderUtils.checkCancellation
-        );
-        JavaContextProviderUtils.checkCancellation(copilotCancel);
         items.push(...importsResult.items);
     } catch (error: any) {
         if (error instanceof CopilotCancellationError) {
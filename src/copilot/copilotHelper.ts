@@ -1,9 +1,10 @@
 // Copyright (c) Microsoft Corporation. All rights reserved.
 // Licensed under the MIT license.
 
-import { commands, Uri, CancellationToken } from "vscode";
+import { Uri, CancellationToken } from "vscode";
 import { JavaContextProviderUtils } from "./utils";
 import { Commands } from '../commands';
+import { IBatchResult, Jdtls } from '../java/jdtls';
 
 /**
  * Enum for error messages used in Promise rejection
@@ -51,47 +52,67 @@ export interface IProjectDependenciesResult {
  * Helper class for Copilot integration to analyze Java project dependencies
  */
 export namespace CopilotHelper {
+    // Time budgets of the sub-commands, in milliseconds. They run one after the other on the server.
+    const DEPENDENCIES_TIMEOUT = 40;
+    const IMPORTS_TIMEOUT = 80;
+    // Ceiling of the whole resolution, the one it had when the sub-commands were requested separately
+    const CONTEXT_TIMEOUT = 80;
+    // Part of the ceiling left for the batch result to reach the client
+    const RESPONSE_MARGIN = 10;
+
+    /**
+     * Result of the resolution of the Copilot context of a file
+     */
+    export interface IContextResult {
+        dependencies: IProjectDependenciesResult;
+        imports: IImportClassContentResult;
+    }
+
     /**
-     * Resolves all local project types imported by the given file with detailed error reporting
+     * Resolves the project dependencies and the local project types imported by the given file
+     * in a single round-trip to the language server, with detailed error reporting for each of them
      * @param fileUri The URI of the Java file to analyze
      * @param cancellationToken Optional cancellation token to abort the operation
-     * @returns Result object containing import class information and error details
+     * @returns Result object containing the dependencies, the import class information and their error details
      */
-    export async function resolveLocalImportsWithReason(fileUri: Uri, cancellationToken?: CancellationToken): Promise<IImportClassContentResult> {
+    export async function resolveContextWithReason(fileUri: Uri, cancellationToken?: CancellationToken): Promise<IContextResult> {
         if (cancellationToken?.isCancellationRequested) {
-            return {
-                classInfoList: [],
-                emptyReason: EmptyReason.CopilotCancelled,
-                isEmpty: true
-            };
+            return emptyContextResult(EmptyReason.CopilotCancelled);
         }
 
         try {
             const normalizedUri = decodeURIComponent(Uri.file(fileUri.fsPath).toString());
-            const commandPromise = commands.executeCommand(
-                Commands.EXECUTE_WORKSPACE_COMMAND,
-                Commands.JAVA_PROJECT_GET_IMPORT_CLASS_CONTENT,
-                normalizedUri
-            ) as Promise<IImportClassContentResult>;
+            const batchPromise = Jdtls.executeBatch([
+                {
+                    command: Commands.JAVA_PROJECT_GET_DEPENDENCIES,
+                    arguments: [normalizedUri],
+                    timeout: DEPENDENCIES_TIMEOUT,
+                },
+                {
+                    command: Commands.JAVA_PROJECT_GET_IMPORT_CLASS_CONTENT,
+                    arguments: [normalizedUri],
+                    timeout: IMPORTS_TIMEOUT,
+                },
+            ], CONTEXT_TIMEOUT - RESPONSE_MARGIN); // the server returns the sub-commands finished within the batch budget
 
             // Build promises array for race condition
             // Note: Client-side timeout is NECESSARY even if backend has timeout because:
             // 1. Network delays may prevent backend response from arriving
             // 2. Process hangs won't trigger backend timeout
             // 3. Command dispatch failures need to be caught
-            const promises: Promise<IImportClassContentResult>[] = [
-                commandPromise,
-                new Promise<IImportClassContentResult>((_, reject) => {
+            const promises: Promise<IBatchResult[]>[] = [
+                batchPromise,
+                new Promise<IBatchResult[]>((_, reject) => {
                     setTimeout(() => {
                         reject(new Error(ErrorMessage.OperationTimedOut));
-                    }, 80); // 80ms client-side timeout (independent of backend timeout)
+                    }, CONTEXT_TIMEOUT); // client-side timeout (independent of backend timeout)
                 })
             ];
 
             // Add cancellation promise if token provided
             if (cancellationToken) {
                 promises.push(
-                    new Promise<IImportClassContentResult>((_, reject) => {
+                    new Promise<IBatchResult[]>((_, reject) => {
                         cancellationToken.onCancellationRequested(() => {
                             reject(new Error(ErrorMessage.OperationCancelled));
                         });
@@ -99,121 +120,56 @@ export namespace CopilotHelper {
                 );
             }
 
-            const result = await Promise.race(promises);
-            if (!result) {
-                return {
-                    classInfoList: [],
-                    emptyReason: EmptyReason.CommandNullResult,
-                    isEmpty: true
-                };
-            }
-            return result;
+            const results = await Promise.race(promises);
+            return {
+                dependencies: toItemResult(results[0], emptyDependenciesResult),
+                imports: toItemResult(results[1], emptyImportsResult),
+            };
         } catch (error: any) {
             if (error.message === ErrorMessage.OperationCancelled) {
-                return {
-                    classInfoList: [],
-                    emptyReason: EmptyReason.CopilotCancelled,
-                    isEmpty: true
-                };
+                return emptyContextResult(EmptyReason.CopilotCancelled);
             }
             if (error.message === ErrorMessage.OperationTimedOut) {
-                return {
-                    classInfoList: [],
-                    emptyReason: EmptyReason.Timeout,
-                    isEmpty: true
-                };
+                return emptyContextResult(EmptyReason.Timeout);
             }
-            const errorMessage = 'TsException_' + ((error as Error).message || "unknown");
-            return {
-                classInfoList: [],
-                emptyReason: errorMessage,
-                isEmpty: true
-            };
+            return emptyContextResult('TsException_' + ((error as Error).message || "unknown"));
         }
     }
 
     /**
-     * Resolves project dependencies with detailed error reporting
-     * @param projectUri The URI of the Java project to analyze
-     * @param cancellationToken Optional cancellation token to abort the operation
-     * @returns Result object containing project dependencies and error information
+     * Get the result of one sub-command of the batch, or an empty result with the reason of its failure
      */
-    export async function resolveProjectDependenciesWithReason(
-        fileUri: Uri,
-        cancellationToken?: CancellationToken
-    ): Promise<IProjectDependenciesResult> {
-        if (cancellationToken?.isCancellationRequested) {
-            return {
-                dependencyInfoList: [],
-                emptyReason: EmptyReason.CopilotCancelled,
-                isEmpty: true
-            };
+    function toItemResult<T>(item: IBatchResult | undefined, createEmptyResult: (reason: string) => T): T {
+        if (item?.result) {
+            return item.result;
         }
+        if (item?.error) {
+            return createEmptyResult('ServerException_' + item.error);
+        }
+        return createEmptyResult(item?.isCancelled ? EmptyReason.Timeout : EmptyReason.CommandNullResult);
+    }
 
-        try {
-            const normalizedUri = decodeURIComponent(Uri.file(fileUri.fsPath).toString());
-            const commandPromise = commands.executeCommand(
-                Commands.EXECUTE_WORKSPACE_COMMAND,
-                Commands.JAVA_PROJECT_GET_DEPENDENCIES,
-                normalizedUri
-            ) as Promise<IProjectDependenciesResult>;
-
-            // Build promises array for race condition
-            // Note: Client-side timeout is NECESSARY even if backend has timeout because:
-            // 1. Network delays may prevent backend response from arriving
-            // 2. Process hangs won't trigger backend timeout
-            // 3. Command dispatch failures need to be caught
-            const promises: Promise<IProjectDependenciesResult>[] = [
-                commandPromise,
-                new Promise<IProjectDependenciesResult>((_, reject) => {
-                    setTimeout(() => {
-                        reject(new Error(ErrorMessage.OperationTimedOut));
-                    }, 40); // 40ms client-side timeout (independent of backend timeout)
-                })
-            ];
+    function emptyDependenciesResult(reason: string): IProjectDependenciesResult {
+        return {
+            dependencyInfoList: [],
+            emptyReason: reason,
+            isEmpty: true
+        };
+    }
 
-            // Add cancellation promise if token provided
-            if (cancellationToken) {
-                promises.push(
-                    new Promise<IProjectDependenciesResult>((_, reject) => {
-                        cancellationToken.onCancellationRequested(() => {
-                            reject(new Error(ErrorMessage.OperationCancelled));
-                        });
-                    })
-                );
-            }
+    function emptyImportsResult(reason: string): IImportClassContentResult {
+        return {
+            classInfoList: [],
+            emptyReason: reason,
+            isEmpty: true
+        };
+    }
 
-            const result = await Promise.race(promises);
-            if (!result) {
-                return {
-                    dependencyInfoList: [],
-                    emptyReason: EmptyReason.CommandNullResult,
-                    isEmpty: true
-                };
-            }
-            return result;
-        } catch (error: any) {
-            if (error.message === ErrorMessage.OperationCancelled) {
-                return {
-                    dependencyInfoList: [],
-                    emptyReason: EmptyReason.CopilotCancelled,
-                    isEmpty: true
-                };
-            }
-            if (error.message === ErrorMessage.OperationTimedOut) {
-                return {
-                    dependencyInfoList: [],
-                    emptyReason: EmptyReason.Timeout,
-                    isEmpty: true
-                };
-            }
-            const errorMessage = 'TsException_' + ((error as Error).message || "unknown");
-            return {
-                dependencyInfoList: [],
-                emptyReason: errorMessage,
-                isEmpty: true
-            };
-        }
+    function emptyContextResult(reason: string): IContextResult {
+        return {
+            dependencies: emptyDependenciesResult(reason),
+            imports: emptyImportsResult(reason),
+        };
     }
 
     /**
@@ -226,101 +182,71 @@ export namespace CopilotHelper {
     }
 
     /**
-     * Resolves project dependencies and converts them to context items with cancellation support
-     * @param activeEditor The active text editor, or undefined if none
-     * @param copilotCancel Cancellation token from Copilot
-     * @param checkCancellation Function to check for cancellation
-     * @returns Result object containing context items and diagnostic information
+     * Result interface for the resolution of the whole context with diagnostic information
      */
-    export async function resolveAndConvertProjectDependencies(
-        activeEditor: { document: { uri: Uri; languageId: string } } | undefined,
-        copilotCancel: CancellationToken,
-        checkCancellation: (token: CancellationToken) => void
-    ): Promise<IResolveResult> {
-        const items: any[] = [];
-
-        // Check if active editor exists
-        if (!activeEditor) {
-            return { items: [], emptyReason: EmptyReason.NoActiveEditor, itemCount: 0 };
-        }
-        if (activeEditor.document.languageId !== 'java') {
-            return { items: [], emptyReason: EmptyReason.NotJavaFile, itemCount: 0 };
-        }
-        const documentUri = activeEditor.document.uri;
-
-        // Resolve project dependencies
-        const projectDependenciesResult = await resolveProjectDependenciesWithReason(documentUri, copilotCancel);
-
-        // Check for cancellation after dependency resolution
-        checkCancellation(copilotCancel);
-
-        // Return empty result with reason if no dependencies found
-        if (projectDependenciesResult.isEmpty && projectDependenciesResult.emptyReason) {
-            return { items: [], emptyReason: projectDependenciesResult.emptyReason, itemCount: 0 };
-        }
-
-        // Check for cancellation after dependency resolution
-        checkCancellation(copilotCancel);
-
-        // Convert project dependencies to context items
-        if (projectDependenciesResult.dependencyInfoList && projectDependenciesResult.dependencyInfoList.length > 0) {
-            const contextItems = JavaContextProviderUtils.createContextItemsFromProjectDependencies(projectDependenciesResult.dependencyInfoList);
-
-            // Check cancellation once after creating all items
-            checkCancellation(copilotCancel);
-            items.push(...contextItems);
-        }
-
-        return { items, itemCount: items.length };
+    export interface IResolveContextResult {
+        dependenciesResult: IResolveResult;
+        importsResult: IResolveResult;
     }
 
     /**
-     * Resolves local imports and converts them to context items with cancellation support
+     * Resolves project dependencies and local imports, and converts them to context items with cancellation support
      * @param activeEditor The active text editor, or undefined if none
      * @param copilotCancel Cancellation token from Copilot
      * @param checkCancellation Function to check for cancellation
-     * @returns Result object containing context items and diagnostic information
+     * @returns Result objects containing context items and diagnostic information
      */
-    export async function resolveAndConvertLocalImports(
+    export async function resolveAndConvertContext(
         activeEditor: { document: { uri: Uri; languageId: string } } | undefined,
         copilotCancel: CancellationToken,
         checkCancellation: (token: CancellationToken) => void
-    ): Promise<IResolveResult> {
-        const items: any[] = [];
-
-        // Check if there's an active editor with a Java document
+    ): Promise<IResolveContextResult> {
+        // Check if active editor exists
         if (!activeEditor) {
-            return { items: [], emptyReason: EmptyReason.NoActiveEditor, itemCount: 0 };
+            return emptyResolveContextResult(EmptyReason.NoActiveEditor);
         }
         if (activeEditor.document.languageId !== 'java') {
-            return { items: [], emptyReason: EmptyReason.NotJavaFile, itemCount: 0 };
+            return emptyResolveContextResult(EmptyReason.NotJavaFile);
         }
-
         const documentUri = activeEditor.document.uri;
 
-        // Check for cancellation before resolving imports
-        checkCancellation(copilotCancel);
-        // Resolve imports directly without caching
-        const importClassResult = await resolveLocalImportsWithReason(documentUri, copilotCancel);
+        // Resolve project dependencies and imports in the same request
+        const contextResult = await resolveContextWithReason(documentUri, copilotCancel);
 
         // Check for cancellation after resolution
         checkCancellation(copilotCancel);
 
-        // Return empty result with reason if no imports found
+        const dependenciesResult: IResolveResult = { items: [], itemCount: 0 };
+        const projectDependenciesResult = contextResult.dependencies;
+        if (projectDependenciesResult.isEmpty && projectDependenciesResult.emptyReason) {
+            // Return empty result with reason if no dependencies found
+            dependenciesResult.emptyReason = projectDependenciesResult.emptyReason;
+        } else if (projectDependenciesResult.dependencyInfoList && projectDependenciesResult.dependencyInfoList.length > 0) {
+            // Convert project dependencies to context items
+            dependenciesResult.items = JavaContextProviderUtils.createContextItemsFromProjectDependencies(
+                projectDependenciesResult.dependencyInfoList);
+            dependenciesResult.itemCount = dependenciesResult.items.length;
+        }
+
+        const importsResult: IResolveResult = { items: [], itemCount: 0 };
+        const importClassResult = contextResult.imports;
         if (importClassResult.isEmpty && importClassResult.emptyReason) {
-            return { items: [], emptyReason: importClassResult.emptyReason, itemCount: 0 };
+            // Return empty result with reason if no imports found
+            importsResult.emptyReason = importClassResult.emptyReason;
+        } else if (importClassResult.classInfoList && importClassResult.classInfoList.length > 0) {
+            importsResult.items = JavaContextProviderUtils.createContextItemsFromImports(importClassResult.classInfoList);
+            importsResult.itemCount = importsResult.items.length;
         }
 
-        // Check for cancellation before processing results
+        // Check cancellation once after creating all items
         checkCancellation(copilotCancel);
-        if (importClassResult.classInfoList && importClassResult.classInfoList.length > 0) {
-            // Process imports in batches to reduce cancellation check overhead
-            const contextItems = JavaContextProviderUtils.createContextItemsFromImports(importClassResult.classInfoList);
-            // Check cancellation once after creating all items
-            checkCancellation(copilotCancel);
-            items.push(...contextItems);
-        }
+        return { dependenciesResult, importsResult };
+    }
 
-        return { items, itemCount: items.length };
+    function emptyResolveContextResult(reason: string): IResolveContextResult {
+        return {
+            dependenciesResult: { items: [], emptyReason: reason, itemCount: 0 },
+            importsResult: { items: [], emptyReason: reason, itemCount: 0 },
+        };
     }
 }
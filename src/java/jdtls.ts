@@ -7,16 +7,25 @@ import { CancellationToken, Uri, commands, workspace } from "vscode";
 import { Commands, executeJavaLanguageServerCommand } from "../commands";
 import { IClasspath } from "../tasks/buildArtifact/IStepMetadata";
 import { IMainClassInfo } from "../tasks/buildArtifact/ResolveMainClassExecutor";
-import { INodeData, NodeKind } from "./nodeData";
+import { ContainerEntryKind, IContainerNodeData } from "./containerNodeData";
+import { ICompactNodeData, ICompactPackageData, INodeData, INodeProjection, NodeKind } from "./nodeData";
+import { IPackageRootNodeData, PackageRootKind } from "./packageRootNodeData";
 import { Settings } from "../settings";
 
 export namespace Jdtls {
-    export async function getProjects(params: string): Promise<INodeData[]> {
+    const partialResultHandlers: Map<string, (nodes: INodeData[]) => void> = new Map();
+    let partialResultCounter: number = 0;
+
+    /**
+     * @param projection the fields of the nodes to return, all of them by default
+     */
+    export async function getProjects(params: string, projection?: INodeProjection): Promise<INodeData[]> {
         return await commands.executeCommand(
             Commands.EXECUTE_WORKSPACE_COMMAND,
             Commands.JAVA_PROJECT_LIST,
             params,
-            Settings.nonJavaResourcesFiltered()
+            Settings.nonJavaResourcesFiltered(),
+            projection
         ) || [];
     }
 
@@ -28,13 +37,108 @@ export namespace Jdtls {
         return commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_PROJECT_REFRESH_LIB_SERVER, params);
     }
 
-    export async function getPackageData(params: IPackageDataParam): Promise<INodeData[]> {
+    export async function getPackageData(params: IPackageDataParam,
+                                         onPartialResult?: (nodes: INodeData[]) => void): Promise<INodeData[]> {
         const uri: Uri | null = !params.projectUri ? null : Uri.parse(params.projectUri);
         const excludePatterns: {[key: string]: boolean} | undefined = workspace.getConfiguration("files", uri).get("exclude");
+        const compact: boolean = Settings.compactPackageData();
+
+        if (!onPartialResult) {
+            const nodeData: INodeData[] = decodeNodeData(await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND,
+                Commands.JAVA_GETPACKAGEDATA, { ...params, compact }));
+            return filterNodeData(nodeData, excludePatterns);
+        }
+
+        // The server pushes the children in chunks through VIEW_PACKAGE_INTERNAL_PARTIAL_RESULT
+        // and responds with the remaining ones.
+        const partialResultToken: string = `${Date.now()}-${++partialResultCounter}`;
+        const result: INodeData[] = [];
+        partialResultHandlers.set(partialResultToken, (nodes: INodeData[]) => {
+            const filtered: INodeData[] = filterNodeData(nodes, excludePatterns);
+            result.push(...filtered);
+            onPartialResult(filtered);
+        });
+        try {
+            const nodeData: INodeData[] = decodeNodeData(await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND,
+                Commands.JAVA_GETPACKAGEDATA, { ...params, partialResultToken, compact }));
+            result.push(...filterNodeData(nodeData, excludePatterns));
+        } finally {
+            partialResultHandlers.delete(partialResultToken);
+        }
+        return result;
+    }
+
+    export function reportPartialResult(token: string, nodes: INodeData[]): void {
+        const handler: ((nodes: INodeData[]) => void) | undefined = partialResultHandlers.get(token);
+        if (handler && nodes?.length) {
+            handler(nodes);
+        }
+    }
 
-        let nodeData: INodeData[] = await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND,
-            Commands.JAVA_GETPACKAGEDATA, params) || [];
+    /**
+     * Apply the explorer filters to nodes pushed by the server.
+     */
+    export function filterPushedNodeData(nodeData: INodeData[], resourceUri: string): INodeData[] {
+        const excludePatterns: {[key: string]: boolean} | undefined = workspace.getConfiguration("files", Uri.parse(resourceUri)).get("exclude");
+        return filterNodeData(nodeData, excludePatterns);
+    }
 
+    /**
+     * Decode the nodes returned by getPackageData, which are compact when
+     * requested and supported by the server.
+     */
+    function decodeNodeData(result: INodeData[] | ICompactPackageData | undefined): INodeData[] {
+        if (!result) {
+            return [];
+        }
+        if (Array.isArray(result)) {
+            return result;
+        }
+
+        const compact: ICompactPackageData = result;
+        const previous: { [field: string]: string } = { p: "", u: "", h: "" };
+        const frontDecode = (field: "p" | "u" | "h", value: [number, string] | undefined): string | undefined => {
+            if (!value) {
+                return undefined;
+            }
+            previous[field] = previous[field].substring(0, value[0]) + value[1];
+            return previous[field];
+        };
+        // decode a node before its children, in the order of the encoding
+        const decode = (node: ICompactNodeData): INodeData => {
+            const data: INodeData = {
+                name: node.n === undefined ? "" : compact.strings[node.n],
+                kind: node.k,
+            };
+            if (node.d !== undefined) {
+                data.displayName = compact.strings[node.d];
+            }
+            if (node.mn !== undefined) {
+                data.moduleName = compact.strings[node.mn];
+            }
+            data.path = frontDecode("p", node.p);
+            data.uri = frontDecode("u", node.u);
+            data.handlerIdentifier = frontDecode("h", node.h);
+            if (node.m) {
+                data.metaData = {};
+                for (let i = 0; i < node.m.length; i += 2) {
+                    data.metaData[compact.strings[node.m[i]]] = compact.values[node.m[i + 1]];
+                }
+            }
+            if (node.e !== undefined && node.k === NodeKind.Container) {
+                (<IContainerNodeData>data).entryKind = <ContainerEntryKind>node.e;
+            } else if (node.e !== undefined) {
+                (<IPackageRootNodeData>data).entryKind = <PackageRootKind>node.e;
+            }
+            if (node.c) {
+                data.children = node.c.map(decode);
+            }
+            return data;
+        };
+        return compact.nodes.map(decode);
+    }
+
+    function filterNodeData(nodeData: INodeData[], excludePatterns: {[key: string]: boolean} | undefined): INodeData[] {
         // check filter settings.
         if (Settings.nonJavaResourcesFiltered()) {
             nodeData = nodeData.filter((data: INodeData) => {
@@ -61,11 +165,21 @@ export namespace Jdtls {
                 });
             }
         }
+
+        // the children prefetched by the server, see IPackageDataParam.depth
+        for (const data of nodeData) {
+            if (data.children?.length) {
+                data.children = filterNodeData(data.children, excludePatterns);
+            }
+        }
         return nodeData;
     }
 
-    export async function resolvePath(params: string): Promise<INodeData[]> {
-        return await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_RESOLVEPATH, params) || [];
+    /**
+     * @param projection the fields of the nodes to return, all of them by default
+     */
+    export async function resolvePath(params: string, projection?: INodeProjection): Promise<INodeData[]> {
+        return await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_RESOLVEPATH, params, projection) || [];
     }
 
     export async function getMainClasses(params: string): Promise<IMainClassInfo[]> {
@@ -86,6 +200,33 @@ export namespace Jdtls {
         return await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_PROJECT_GET_DEPENDENCIES, projectUri) || [];
     }
 
+    /**
+     * Run several delegate commands in one round-trip to the language server.
+     * The results are returned in the same order as the requests.
+     * @param timeout the time budget of the whole batch in milliseconds, the requests
+     *                which are not finished when it is spent are cancelled
+     */
+    export async function executeBatch(requests: IBatchRequest[], timeout?: number): Promise<IBatchResult[]> {
+        return await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_PROJECT_BATCH, requests, timeout) || [];
+    }
+
+    /**
+     * Ask the server to push the structural changes of the source packages
+     * through VIEW_PACKAGE_INTERNAL_TREE_DELTA.
+     *
+     * @returns whether the server pushes the changes
+     */
+    export async function enableTreeDeltas(enabled: boolean): Promise<boolean> {
+        return !!await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_PROJECT_ENABLE_TREE_DELTAS, enabled);
+    }
+
+    /**
+     * Drop the explorer data cached by the server, so that it is read from the disk again.
+     */
+    export async function clearCaches(): Promise<void> {
+        await commands.executeCommand(Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_PROJECT_CLEAR_CACHES);
+    }
+
     export enum CompileWorkspaceStatus {
         Failed = 0,
         Succeed = 1,
@@ -100,9 +241,49 @@ export namespace Jdtls {
 
 interface IPackageDataParam {
     projectUri: string | undefined;
+    /**
+     * Number of levels to return, the children of the returned nodes are set by the server.
+     * Only the packages of the source roots are returned below the first level.
+     */
+    depth?: number;
+    /**
+     * Maximum number of nodes returned below the first level.
+     */
+    nodeBudget?: number;
+    /**
+     * Index of the first child to return, the children after the returned page
+     * are represented by a NodeKind.More node.
+     */
+    offset?: number;
+    limit?: number;
+    /**
+     * Whether the server returns an ICompactPackageData instead of the nodes,
+     * see Settings.compactPackageData().
+     */
+    compact?: boolean;
+    /**
+     * The fields of the nodes to return, all of them by default.
+     */
+    projection?: INodeProjection;
     [key: string]: any;
 }
 
+export interface IBatchRequest {
+    command: string;
+    arguments: any[];
+    /** Time budget of the request in milliseconds. */
+    timeout?: number;
+}
+
+export interface IBatchResult {
+    command: string;
+    result?: any;
+    error?: string;
+    isCancelled: boolean;
+    /** Time spent on the request in milliseconds. */
+    elapsed: number;
+}
+
 export interface IDependencyInfo {
     key: string;
     value: string;
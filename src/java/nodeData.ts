@@ -12,6 +12,10 @@ export enum NodeKind {
     Container = 8,
     Folder = 9,
     File = 10,
+    /**
+     * Placeholder of the children which are not loaded yet, see DataNode.loadMoreChildren().
+     */
+    More = 11,
 }
 
 export enum TypeKind {
@@ -34,3 +38,71 @@ export interface INodeData {
     children?: any[];
     metaData?: { [id: string]: any };
 }
+
+/**
+ * Structural change of the children of a node, pushed by the server.
+ */
+export interface ITreeDelta {
+    parentUri: string;
+    parentKind: NodeKind;
+    added: INodeData[];
+    /**
+     * uris of the removed children
+     */
+    removed: string[];
+    changed: INodeData[];
+    /**
+     * the children cannot be patched and have to be loaded again
+     */
+    reload: boolean;
+}
+
+/**
+ * Fields of the nodes returned by the server, the name and the kind are always returned.
+ */
+export interface INodeProjection {
+    fields?: Array<"displayName" | "moduleName" | "path" | "handlerIdentifier" | "uri" | "metaData">;
+    /**
+     * keys of the metadata to return, when not all of them are requested in fields
+     */
+    metaDataKeys?: string[];
+}
+
+/**
+ * Compact encoding of a list of nodes returned by the server, see
+ * CompactPackageData on the server side.
+ */
+export interface ICompactPackageData {
+    format: number;
+    /**
+     * names and metadata keys
+     */
+    strings: string[];
+    /**
+     * distinct metadata values
+     */
+    values: any[];
+    nodes: ICompactNodeData[];
+}
+
+export interface ICompactNodeData {
+    k: NodeKind;
+    n?: number;
+    d?: number;
+    mn?: number;
+    /**
+     * [length of the prefix shared with the path of the previous node, rest of the path]
+     */
+    p?: [number, string];
+    u?: [number, string];
+    h?: [number, string];
+    /**
+     * pairs of key index in strings and value index in values
+     */
+    m?: number[];
+    /**
+     * entry kind of a package root or a container
+     */
+    e?: number;
+    c?: ICompactNodeData[];
+}
@@ -117,6 +117,13 @@ export class Settings {
         return workspace.getConfiguration("java.project.exportJar").get<string>("targetPath", "${workspaceFolder}/${workspaceFolderBasename}.jar");
     }
 
+    /**
+     * Get whether the explorer data is requested in the compact encoding.
+     */
+    public static compactPackageData(): boolean {
+        return workspace.getConfiguration("java.dependency").get("compactPackageData", false);
+    }
+
     /**
      * Get whether non-Java resources should be filtered in the explorer.
      */
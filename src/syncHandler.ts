@@ -7,6 +7,7 @@ import { commands, Disposable, FileSystemWatcher, RelativePattern, Uri, workspac
 import { instrumentOperation } from "vscode-extension-telemetry-wrapper";
 import { Commands } from "./commands";
 import { NodeKind } from "./java/nodeData";
+import { IPackageRootNodeData, PackageRootKind } from "./java/packageRootNodeData";
 import { languageServerApiManager } from "./languageServerApi/languageServerApiManager";
 import { Settings } from "./settings";
 import { DataNode } from "./views/dataNode";
@@ -21,13 +22,17 @@ const DISABLE_AUTO_REFRESH: string = "java.view.package.disableAutoRefresh";
 class SyncHandler implements Disposable {
 
     private disposables: Disposable[] = [];
+    /**
+     * Whether the server pushes the added and removed Java files, see Jdtls.enableTreeDeltas().
+     */
+    private treeDeltasEnabled: boolean = false;
 
     public updateFileWatcher(autoRefresh?: boolean): void {
         this.dispose();
         if (autoRefresh) {
             instrumentOperation(ENABLE_AUTO_REFRESH, () => this.enableAutoRefresh())();
         } else {
-            instrumentOperation(DISABLE_AUTO_REFRESH, () => {})();
+            instrumentOperation(DISABLE_AUTO_REFRESH, () => this.disableTreeDeltas())();
         }
     }
 
@@ -50,6 +55,13 @@ class SyncHandler implements Disposable {
             setImmediate(() => upgradeManager.scan());  // Deferred
         }));
 
+        try {
+            this.treeDeltasEnabled = await Jdtls.enableTreeDeltas(true);
+        } catch (e) {
+            // not supported by the server, rely on the file watchers only
+            this.treeDeltasEnabled = false;
+        }
+
         try {
             const uris = await this.getWatchingUris();
             for (const uri of uris) {
@@ -66,6 +78,18 @@ class SyncHandler implements Disposable {
         }
     }
 
+    private async disableTreeDeltas() {
+        if (!this.treeDeltasEnabled) {
+            return;
+        }
+        this.treeDeltasEnabled = false;
+        try {
+            await Jdtls.enableTreeDeltas(false);
+        } catch (e) {
+            // the server has stopped
+        }
+    }
+
     private async getWatchingUris(): Promise<Uri[]> {
         return (await Jdtls.getProjectUris()).map((uri) => Uri.parse(uri));
         // TODO: get source path uris if non-java resources are hidden
@@ -90,6 +114,9 @@ class SyncHandler implements Disposable {
         }));
 
         this.disposables.push(watcher.onDidCreate((uri: Uri) => {
+            if (this.isPushedByServer(uri)) {
+                return;
+            }
             const node: ExplorerNode | undefined = this.getParentNodeInExplorer(uri);
             // When the created resource lands in a package that is not currently
             // rendered, getParentNodeInExplorer resolves to the source root. Tell
@@ -105,11 +132,32 @@ class SyncHandler implements Disposable {
         }));
 
         this.disposables.push(watcher.onDidDelete((uri: Uri) => {
+            if (this.isPushedByServer(uri)) {
+                return;
+            }
             this.refresh(this.getParentNodeInExplorer(uri));
         }));
 
     }
 
+    /**
+     * The added and removed Java files of the source roots are pushed by the server
+     * as tree deltas, which patch the explorer without loading the children of their
+     * package again. The other Java files are not Java elements, e.g. in a resource
+     * folder, and are refreshed by the watcher.
+     */
+    private isPushedByServer(uri: Uri): boolean {
+        if (!this.treeDeltasEnabled || path.extname(uri.fsPath) !== ".java") {
+            return false;
+        }
+        let node: ExplorerNode | undefined = explorerNodeCache.findBestMatchNodeByUri(uri);
+        while (node instanceof DataNode && node.nodeData.kind > NodeKind.PackageRoot) {
+            node = node.getParent();
+        }
+        return node instanceof DataNode && node.nodeData.kind === NodeKind.PackageRoot
+            && (<IPackageRootNodeData>node.nodeData).entryKind === PackageRootKind.K_SOURCE;
+    }
+
     private async needRefresh(fsPath: string): Promise<boolean> {
         if (Settings.showMembers() && path.extname(fsPath) === ".java") {
             return true;
@@ -47,8 +47,8 @@ export class ContainerNode extends DataNode {
         return this._containerType === ContainerType.Maven;
     }
 
-    protected async loadData(): Promise<INodeData[]> {
-        return Jdtls.getPackageData({ kind: NodeKind.Container, projectUri: this._project.uri, path: this.path });
+    protected async loadData(offset?: number, onPartialResult?: (nodes: INodeData[]) => void): Promise<INodeData[]> {
+        return Jdtls.getPackageData({ kind: NodeKind.Container, projectUri: this._project.uri, path: this.path, offset }, onPartialResult);
     }
 
     protected createChildNodeList(): ExplorerNode[] {
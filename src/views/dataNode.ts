@@ -2,13 +2,23 @@
 // Licensed under the MIT license.
 
 import * as _ from "lodash";
-import { ThemeIcon, TreeItem, TreeItemCollapsibleState, Uri } from "vscode";
+import { Event, EventEmitter, ThemeIcon, TreeItem, TreeItemCollapsibleState, Uri } from "vscode";
 import { INodeData, NodeKind } from "../java/nodeData";
 import { explorerLock } from "../utils/Lock";
 import { ExplorerNode } from "./explorerNode";
 
+const K_NEXT_OFFSET: string = "NextOffset";
+
 export abstract class DataNode extends ExplorerNode {
 
+    private static _onDidLoadChildren: EventEmitter<DataNode> = new EventEmitter<DataNode>();
+
+    /**
+     * Fired when the rest of the children of a node rendered with partial results are loaded.
+     */
+    // tslint:disable-next-line:member-ordering
+    public static onDidLoadChildren: Event<DataNode> = DataNode._onDidLoadChildren.event;
+
     protected _childrenNodes: ExplorerNode[];
 
     constructor(protected _nodeData: INodeData, parent?: DataNode) {
@@ -81,11 +91,14 @@ export abstract class DataNode extends ExplorerNode {
         try {
             await explorerLock.acquireAsync();
             if (!this._nodeData.children) {
-                const data = await this.loadData();
+                const data = await this.loadChildren();
                 this._nodeData.children = data;
                 this._childrenNodes = this.createChildNodeList() || [];
                 this.sort();
-                return this._childrenNodes;
+            } else if (!this._childrenNodes) {
+                // the children have been prefetched with the parent, see IPackageDataParam.depth
+                this._childrenNodes = this.createChildNodeList() || [];
+                this.sort();
             }
             return this._childrenNodes;
         } finally {
@@ -93,6 +106,50 @@ export abstract class DataNode extends ExplorerNode {
         }
     }
 
+    /**
+     * Patch the loaded children with the changes pushed by the server.
+     * Nothing is done if the children are not loaded yet, since they are
+     * loaded with the changes when the node is expanded.
+     *
+     * @param removed uris of the removed children
+     * @returns whether the children have been patched
+     */
+    public async applyDelta(added: INodeData[], removed: string[], changed: INodeData[]): Promise<boolean> {
+        try {
+            await explorerLock.acquireAsync();
+            if (!this._nodeData.children) {
+                return false;
+            }
+            const existing: Set<string> = new Set(this._nodeData.children.map((data: INodeData) => data.uri).filter(Boolean));
+            const updated: INodeData[] = added.concat(changed.filter((data: INodeData) => data.uri && existing.has(data.uri)));
+            const replaced: Set<string> = new Set(removed.concat(updated.map((data: INodeData) => data.uri!)));
+            this.replaceChildren((data: INodeData) => !data.uri || !replaced.has(data.uri), updated);
+            return true;
+        } finally {
+            explorerLock.release();
+        }
+    }
+
+    /**
+     * Replace the placeholder of the children which have not been returned by
+     * the server with the next page of children.
+     *
+     * @param placeholder the data of the NodeKind.More child
+     */
+    public async loadMoreChildren(placeholder: INodeData): Promise<void> {
+        const data: INodeData[] = await this.loadData(placeholder.metaData?.[K_NEXT_OFFSET]) || [];
+        try {
+            await explorerLock.acquireAsync();
+            if (!this._nodeData.children?.includes(placeholder)) {
+                // the children have been loaded again in the meantime
+                return;
+            }
+            this.replaceChildren((child: INodeData) => child !== placeholder, data);
+        } finally {
+            explorerLock.release();
+        }
+    }
+
     public computeContextValue(): string | undefined {
         let contextValue = this.contextValue;
         if (this.uri && this.uri.startsWith("file:")) {
@@ -131,7 +188,66 @@ export abstract class DataNode extends ExplorerNode {
 
     protected abstract get iconPath(): string | Uri | { light: string | Uri; dark: string | Uri } | ThemeIcon;
 
-    protected abstract loadData(): Promise<any[] | undefined>;
+    /**
+     * @param offset index of the first child to load, for the nodes whose children are paged
+     * @param onPartialResult called with the children pushed by the server before it responds,
+     *        for the nodes whose children can be many
+     */
+    protected abstract loadData(offset?: number, onPartialResult?: (nodes: INodeData[]) => void): Promise<any[] | undefined>;
 
     protected abstract createChildNodeList(): ExplorerNode[] | undefined;
+
+    /**
+     * Load the children, resolved with the first chunk of children pushed by the
+     * server if there is one, so that they are rendered while the others are
+     * loaded. onDidLoadChildren is fired once all the children are loaded.
+     */
+    private loadChildren(): Promise<any[] | undefined> {
+        return new Promise((resolve, reject) => {
+            let shown: INodeData[] | undefined;
+            this.loadData(undefined, (nodes: INodeData[]) => {
+                if (!shown) {
+                    shown = nodes.slice();
+                    resolve(shown);
+                }
+            }).then(async (data: any[] | undefined) => {
+                if (!shown) {
+                    resolve(data);
+                    return;
+                }
+                try {
+                    await explorerLock.acquireAsync();
+                    if (this._nodeData.children !== shown) {
+                        // the children have been changed or loaded again in the meantime
+                        return;
+                    }
+                    this._nodeData.children = data;
+                    this._childrenNodes = this.createChildNodeList() || [];
+                    this.sort();
+                } finally {
+                    explorerLock.release();
+                }
+                DataNode._onDidLoadChildren.fire(this);
+            }, (error: any) => {
+                if (!shown) {
+                    reject(error);
+                }
+            });
+        });
+    }
+
+    /**
+     * Keep the loaded children matching the filter, and add nodes for the given data.
+     */
+    private replaceChildren(isKept: (data: INodeData) => boolean, data: INodeData[]): void {
+        const children: INodeData[] = (this._nodeData.children || []).filter(isKept);
+        const childrenNodes: ExplorerNode[] = (this._childrenNodes || []).filter((node: ExplorerNode) =>
+            !(node instanceof DataNode) || isKept(node.nodeData));
+        // create the nodes of the new children only
+        this._nodeData.children = data;
+        const newNodes: ExplorerNode[] = this.createChildNodeList() || [];
+        this._nodeData.children = children.concat(data);
+        this._childrenNodes = childrenNodes.concat(newNodes);
+        this.sort();
+    }
 }
@@ -13,12 +13,13 @@ import { Commands } from "../commands";
 import { Context } from "../constants";
 import { appendOutput, executeExportJarTask } from "../tasks/buildArtifact/BuildArtifactTaskProvider";
 import { Jdtls } from "../java/jdtls";
-import { INodeData, NodeKind } from "../java/nodeData";
+import { INodeData, ITreeDelta, NodeKind } from "../java/nodeData";
 import { languageServerApiManager } from "../languageServerApi/languageServerApiManager";
 import { Settings } from "../settings";
 import { explorerLock } from "../utils/Lock";
 import { DataNode } from "./dataNode";
 import { ExplorerNode } from "./explorerNode";
+import { MoreNode } from "./moreNode";
 import { explorerNodeCache } from "./nodeCache/explorerNodeCache";
 import { ProjectNode } from "./projectNode";
 import { WorkspaceNode } from "./workspaceNode";
@@ -51,10 +52,23 @@ export class DependencyDataProvider implements TreeDataProvider<ExplorerNode> {
         context.subscriptions.push(commands.registerCommand(Commands.EXPORT_JAR_REPORT, (terminalId: string, message: string) => {
             appendOutput(terminalId, message);
         }));
+        context.subscriptions.push(commands.registerCommand(Commands.VIEW_PACKAGE_INTERNAL_PARTIAL_RESULT,
+            (token: string, nodes: INodeData[]) => Jdtls.reportPartialResult(token, nodes)));
+        context.subscriptions.push(commands.registerCommand(Commands.VIEW_PACKAGE_INTERNAL_TREE_DELTA,
+            (deltas: ITreeDelta[]) => this.applyTreeDeltas(deltas)));
+        context.subscriptions.push(commands.registerCommand(Commands.VIEW_PACKAGE_INTERNAL_LOAD_MORE, (node: MoreNode) =>
+            this.loadMore(node)));
+        context.subscriptions.push(DataNode.onDidLoadChildren((node: DataNode) => this._onDidChangeTreeData.fire(node)));
 
         // normal commands
-        context.subscriptions.push(instrumentOperationAsVsCodeCommand(Commands.VIEW_PACKAGE_REFRESH, (debounce?: boolean, element?: ExplorerNode) =>
-            this.refresh(debounce, element)));
+        context.subscriptions.push(instrumentOperationAsVsCodeCommand(Commands.VIEW_PACKAGE_REFRESH,
+            async (debounce?: boolean, element?: ExplorerNode) => {
+                // an explicit refresh reads everything from the disk again
+                if (languageServerApiManager.isFullyReady()) {
+                    await Jdtls.clearCaches();
+                }
+                this.refresh(debounce, element);
+            }));
         context.subscriptions.push(instrumentOperationAsVsCodeCommand(Commands.VIEW_PACKAGE_EXPORT_JAR, async (node: INodeData) => {
             executeExportJarTask(node);
         }));
@@ -205,6 +219,46 @@ export class DependencyDataProvider implements TreeDataProvider<ExplorerNode> {
         }
     }
 
+    /**
+     * Patch the rendered nodes with the structural changes pushed by the server,
+     * instead of loading their children again.
+     */
+    private async applyTreeDeltas(deltas: ITreeDelta[]): Promise<void> {
+        for (const delta of deltas || []) {
+            const node: DataNode | undefined = explorerNodeCache.getDataNode(Uri.parse(delta.parentUri));
+            if (!node) {
+                // not rendered, the children are loaded when the node is expanded
+                continue;
+            }
+            if (delta.reload || node.nodeData.kind !== delta.parentKind
+                    || (Settings.isHierarchicalView() && delta.parentKind !== NodeKind.Project)) {
+                // hierarchical packages are computed from the whole package root
+                this.refresh(true, Settings.isHierarchicalView() ? this.getPackageRoot(node) : node);
+                continue;
+            }
+            const added: INodeData[] = Jdtls.filterPushedNodeData(delta.added || [], delta.parentUri);
+            if (await node.applyDelta(added, delta.removed || [], delta.changed || [])) {
+                this._onDidChangeTreeData.fire(node);
+            }
+        }
+    }
+
+    private async loadMore(node: MoreNode): Promise<void> {
+        const parent: ExplorerNode | undefined = node.getParent();
+        if (parent instanceof DataNode) {
+            await parent.loadMoreChildren(node.nodeData);
+            this._onDidChangeTreeData.fire(parent);
+        }
+    }
+
+    private getPackageRoot(node: DataNode): DataNode {
+        let current: DataNode = node;
+        while (current.nodeData.kind > NodeKind.PackageRoot && current.getParent() instanceof DataNode) {
+            current = <DataNode>current.getParent();
+        }
+        return current;
+    }
+
     private doRefresh(element?: ExplorerNode): void {
         if (!element) {
             this._rootItems = undefined;
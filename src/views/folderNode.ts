@@ -15,13 +15,14 @@ export class FolderNode extends DataNode {
         super(nodeData, parent);
     }
 
-    protected async loadData(): Promise<INodeData[]> {
+    protected async loadData(offset?: number): Promise<INodeData[]> {
         return Jdtls.getPackageData({
             kind: NodeKind.Folder,
             projectUri: this._project.uri,
             path: this.path,
             rootPath: this._rootNode?.path,
             handlerIdentifier: this._rootNode?.handlerIdentifier,
+            offset,
         });
     }
 
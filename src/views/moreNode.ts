@@ -0,0 +1,42 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT license.
+
+import { Command, ThemeIcon } from "vscode";
+import { Commands } from "../commands";
+import { INodeData } from "../java/nodeData";
+import { DataNode } from "./dataNode";
+import { ExplorerNode } from "./explorerNode";
+
+/**
+ * Placeholder of the children which have not been returned by the server.
+ * Clicking it loads the next page of children into the parent node.
+ */
+export class MoreNode extends DataNode {
+    constructor(nodeData: INodeData, parent: DataNode) {
+        super(nodeData, parent);
+    }
+
+    protected hasChildren(): boolean {
+        return false;
+    }
+
+    protected async loadData(): Promise<INodeData[] | undefined> {
+        return undefined;
+    }
+
+    protected createChildNodeList(): ExplorerNode[] | undefined {
+        return undefined;
+    }
+
+    protected get iconPath(): ThemeIcon {
+        return new ThemeIcon("ellipsis");
+    }
+
+    protected get command(): Command {
+        return {
+            title: "Load more",
+            command: Commands.VIEW_PACKAGE_INTERNAL_LOAD_MORE,
+            arguments: [this],
+        };
+    }
+}
@@ -12,6 +12,7 @@ import { FileNode } from "./fileNode";
 import { FolderNode } from "./folderNode";
 import { HierarchicalPackageNode } from "./hierarchicalPackageNode";
 import { HierarchicalPackageRootNode } from "./hierarchicalPackageRootNode";
+import { MoreNode } from "./moreNode";
 import { PackageNode } from "./packageNode";
 import { PackageRootNode } from "./packageRootNode";
 import { ProjectNode } from "./projectNode";
@@ -81,6 +82,12 @@ export class NodeFactory {
                     }
 
                     return new FileNode(nodeData, parent);
+                case NodeKind.More:
+                    if (!parent) {
+                        throw new Error("More node must have parent.");
+                    }
+
+                    return new MoreNode(nodeData, parent);
                 default:
                     throw new Error(`Unsupported node kind: ${nodeData.kind}`);
             }
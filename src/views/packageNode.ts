@@ -22,13 +22,14 @@ export class PackageNode extends DataNode {
         return parentData.entryKind === PackageRootKind.K_SOURCE || parentData.kind === NodeKind.Project;
     }
 
-    protected async loadData(): Promise<INodeData[]> {
+    protected async loadData(offset?: number, onPartialResult?: (nodes: INodeData[]) => void): Promise<INodeData[]> {
         return Jdtls.getPackageData({
             kind: NodeKind.Package,
             projectUri: this._project.nodeData.uri,
             path: this.nodeData.name,
             handlerIdentifier: this.nodeData.handlerIdentifier,
-        });
+            offset,
+        }, onPartialResult);
     }
 
     protected createChildNodeList(): ExplorerNode[] {
@@ -32,7 +32,7 @@ export class PackageRootNode extends DataNode {
         return (<IPackageRootNodeData>this.nodeData).entryKind === PackageRootKind.K_SOURCE;
     }
 
-    protected async loadData(): Promise<INodeData[]> {
+    protected async loadData(offset?: number, onPartialResult?: (nodes: INodeData[]) => void): Promise<INodeData[]> {
         let syncPaths: string[] | undefined;
         if (this.pendingSyncPaths.size) {
             // Snapshot and clear synchronously before the async server call so
@@ -48,7 +48,8 @@ export class PackageRootNode extends DataNode {
                 handlerIdentifier: this.nodeData.handlerIdentifier,
                 isHierarchicalView: Settings.isHierarchicalView(),
                 syncPaths,
-            });
+                offset,
+            }, onPartialResult);
         } catch (error) {
             // Restore the snapshot so a transient server error does not drop the
             // pending paths; the next refresh will retry the targeted sync.
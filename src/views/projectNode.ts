@@ -55,7 +55,13 @@ export class ProjectNode extends DataNode {
     }
 
     protected async loadData(): Promise<INodeData[]> {
-        return Jdtls.getPackageData({ kind: NodeKind.Project, projectUri: this.nodeData.uri });
+        // get the packages of the source roots in the same request, the other children are loaded when expanded
+        return Jdtls.getPackageData({
+            kind: NodeKind.Project,
+            projectUri: this.nodeData.uri,
+            isHierarchicalView: Settings.isHierarchicalView(),
+            depth: 2,
+        });
     }
 
     protected createChildNodeList(): ExplorerNode[] {
@@ -2,6 +2,7 @@
 // Licensed under the MIT license.
 
 import * as assert from "assert";
+import * as fse from "fs-extra";
 import * as vscode from "vscode";
 import { Commands, ContainerNode, contextManager, DataNode, DependencyExplorer, FileNode, FolderNode,
     INodeData, Jdtls, languageServerApiManager, NodeKind, PackageNode, PackageRootNode, PrimaryTypeNode, ProjectNode } from "../../extension.bundle";
@@ -125,6 +126,28 @@ suite("Maven Project View Tests", () => {
         assert.equal(testClass.name, "AppTest", "Name of test class should be \"AppTest\"");
     });
 
+    test("Can expand the nodes prefetched with their project", async function() {
+        await vscode.commands.executeCommand(Commands.VIEW_PACKAGE_REFRESH);
+        const explorer = DependencyExplorer.getInstance(contextManager.context);
+
+        const projectNode = (await explorer.dataProvider.getChildren())![0] as ProjectNode;
+        const projectChildren = await projectNode.getChildren();
+        const mainPackage = projectChildren.find((c: DataNode) => c.name === "src/main/java") as PackageRootNode;
+        assert.ok(mainPackage, "Should have src/main/java package root");
+        assert.ok(mainPackage.nodeData.children, "The children of the source root should be loaded with the project");
+
+        const mainSourceSetChildren = await mainPackage.getChildren();
+        assert.equal(mainSourceSetChildren?.length, mainPackage.nodeData.children!.length,
+            `The prefetched children of the source root should be rendered.\n${printNodes(mainSourceSetChildren || [])}`);
+        assert.ok(mainSourceSetChildren.find((c: DataNode) => c.name === "com.mycompany.app"), "Should have com.mycompany.app package");
+
+        const mavenDependency = projectChildren.find((c: DataNode) => c.name === "Maven Dependencies") as ContainerNode;
+        assert.ok(mavenDependency, "Should have Maven Dependencies container");
+        assert.ok(!mavenDependency.nodeData.children, "Only the children of the source roots should be loaded with the project");
+        const dependencies = await mavenDependency.getChildren();
+        assert.ok(dependencies?.length > 0, "The children of the container should be rendered");
+    });
+
     test("Can node have correct uri", async function() {
         const explorer = DependencyExplorer.getInstance(contextManager.context);
 
@@ -197,6 +220,29 @@ suite("Maven Project View Tests", () => {
         assert.equal(projects![0].name, "my-app", "project should be my-app");
     });
 
+    test("Can execute command java.project.batch correctly", async function() {
+        const workspaceFolders = vscode.workspace.workspaceFolders;
+        assert.ok(workspaceFolders, `There should be valid workspace folders`);
+        const workspaceUri = workspaceFolders![0].uri.toString();
+        const results = await Jdtls.executeBatch([
+            { command: Commands.JAVA_PROJECT_LIST, arguments: [workspaceUri] },
+            { command: "java.project.unknown", arguments: [] },
+            { command: Commands.JAVA_PROJECT_BATCH, arguments: [[{ command: Commands.JAVA_PROJECT_LIST, arguments: [workspaceUri] }]] },
+            { command: Commands.JAVA_PROJECT_REFRESH_LIB_SERVER, arguments: [workspaceUri] },
+            { command: Commands.JAVA_PROJECT_GETMAINCLASSES, arguments: [workspaceUri] },
+        ]);
+        assert.equal(results.length, 5, "Each request should have a result");
+        assert.equal(results[0].result?.[0]?.name, "my-app", "The first request should list my-app");
+        assert.ok(results[1].error, "The unknown command should fail");
+        assert.ok(results[1].result === undefined || results[1].result === null, "The failed request should have no result");
+        assert.ok(results[2].error?.includes("Nested batch"), `The nested batch should be rejected, but was ${results[2].error}`);
+        assert.ok(results[3].error?.includes("read-only"), `The command changing the project should be rejected, but was ${results[3].error}`);
+        assert.ok(results[3].result === undefined || results[3].result === null, "The rejected request should not be executed");
+        // a failing request does not prevent the next ones from running
+        assert.equal(results[4].result?.[0]?.name, "com.mycompany.app.App", "The last request should still be executed");
+        assert.ok(results.every((result) => !result.isCancelled), "No request should be cancelled");
+    });
+
     test("Can execute command java.getPackageData correctly", async function() {
         const explorer = DependencyExplorer.getInstance(contextManager.context);
 
@@ -218,6 +264,37 @@ suite("Maven Project View Tests", () => {
         }).length === 0);
     });
 
+    test("Can page the children of a package root", async function() {
+        const explorer = DependencyExplorer.getInstance(contextManager.context);
+
+        const projectNode = (await explorer.dataProvider.getChildren())![0] as ProjectNode;
+        const projectChildren = await projectNode.getChildren();
+        const mainPackage = projectChildren.find((c: DataNode) => c.name === "src/main/java") as PackageRootNode;
+        const workspaceFolders = vscode.workspace.workspaceFolders;
+        assert.ok(workspaceFolders, `There should be valid workspace folders`);
+        const names: string[] = [];
+        let offset: number | undefined = 0;
+        for (let pages = 0; offset !== undefined; pages++) {
+            assert.ok(pages < 10, "The paging should end");
+            const page: INodeData[] = await vscode.commands.executeCommand<INodeData[]>(Commands.EXECUTE_WORKSPACE_COMMAND,
+                Commands.JAVA_GETPACKAGEDATA, {
+                kind: NodeKind.PackageRoot,
+                projectUri: workspaceFolders![0].uri.toString(),
+                path: mainPackage.nodeData.name,
+                handlerIdentifier: mainPackage.nodeData.handlerIdentifier,
+                offset,
+                limit: 1,
+            }) || [];
+            const more: INodeData | undefined = page.find((node: INodeData) => node.kind === NodeKind.More);
+            // the children filtered out of a page are not known in advance, so the remaining ones are not counted
+            assert.ok(!more || !/\d/.test(more.name), `The placeholder should not show a count, but was "${more?.name}"`);
+            names.push(...page.filter((node: INodeData) => node.kind !== NodeKind.More).map((node: INodeData) => node.name));
+            offset = more?.metaData?.NextOffset;
+        }
+        assert.deepEqual(names.sort(), ["com.mycompany.app", "com.mycompany.app1", "module-info.java"],
+            "The pages should return all the children once");
+    });
+
     test("Can execute command java.resolvePath correctly", async function() {
         const explorer = DependencyExplorer.getInstance(contextManager.context);
 
@@ -239,6 +316,64 @@ suite("Maven Project View Tests", () => {
         assert.equal(mainClasses![0].name, "com.mycompany.app.App", "mainClasses[0]'s name should be com.mycompany.app.App");
     });
 
+    test("Can execute command java.project.filterTree correctly", async function() {
+        const workspaceFolders = vscode.workspace.workspaceFolders;
+        assert.ok(workspaceFolders, `There should be valid workspace folders`);
+        const workspaceUri = workspaceFolders![0].uri.toString();
+        const filterTree = async (query: string): Promise<INodeData[]> => {
+            const result = await vscode.commands.executeCommand<{ nodes: INodeData[]; matches: number; truncated: boolean }>(
+                Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_PROJECT_FILTER_TREE, workspaceUri, query);
+            assert.ok(result && !result.truncated, `The matches of "${query}" should not be truncated`);
+            const project = result!.nodes.find((node: INodeData) => node.name === "my-app");
+            assert.ok(project, `The matches of "${query}" should be in my-app`);
+            return project!.children || [];
+        };
+
+        // "AToRen" is not a substring of AppToRename, only its camel case
+        const camelCaseRoots = await filterTree("AToRen");
+        assert.ok(!camelCaseRoots.some((node: INodeData) => node.name === "src/test/java"), "The test sources should not lead to the match");
+        const camelCasePackages = camelCaseRoots.find((node: INodeData) => node.name === "src/main/java")?.children;
+        assert.deepEqual(camelCasePackages?.map((node: INodeData) => node.name), ["com.mycompany.app"]);
+        assert.deepEqual(camelCasePackages![0].children?.map((node: INodeData) => [node.name, node.kind]),
+            [["AppToRename", NodeKind.PrimaryType]], "Only the matching type should be returned");
+
+        // both the package and its type match the substring
+        const substringRoots = await filterTree("app1");
+        const packages = substringRoots.find((node: INodeData) => node.name === "src/main/java")?.children;
+        assert.deepEqual(packages?.map((node: INodeData) => node.name), ["com.mycompany.app1"]);
+        assert.deepEqual(packages![0].children?.map((node: INodeData) => node.name), ["App1"]);
+    });
+
+    test("Can execute command java.project.exportTree correctly", async function() {
+        const result = await vscode.commands.executeCommand<{ path: string; projects: number; nodes: number }>(
+            Commands.EXECUTE_WORKSPACE_COMMAND, Commands.JAVA_PROJECT_EXPORT_TREE);
+        assert.ok(result?.path, "The export should return the path of the file");
+        const lines: Array<{ id: number; parent?: number; node: INodeData }> = (await fse.readFile(result!.path, "utf8"))
+            .split("\n").filter((line: string) => line.length > 0).map((line: string) => JSON.parse(line));
+        assert.equal(lines.length, result!.nodes, "Each node should be written on one line");
+
+        const nodesById: Map<number, INodeData> = new Map();
+        lines.forEach((line, index: number) => {
+            assert.equal(line.id, index + 1, "The ids should be the positions of the lines");
+            // the parents are written before their children
+            assert.ok(line.parent === undefined || line.parent === null || nodesById.has(line.parent),
+                `The parent of ${line.node.name} should be written before it`);
+            nodesById.set(line.id, line.node);
+        });
+        const projectLines = lines.filter((line) => line.parent === undefined || line.parent === null);
+        assert.equal(projectLines.length, result!.projects, "Only the projects should have no parent");
+        assert.ok(projectLines.every((line) => line.node.kind === NodeKind.Project), "The lines without a parent should be projects");
+        const project = projectLines.find((line) => line.node.name === "my-app");
+        assert.ok(project, "my-app should be exported");
+
+        const mainRoot = lines.find((line) => line.parent === project!.id && line.node.name === "src/main/java");
+        assert.ok(mainRoot, "The source root should be exported below its project");
+        const mainPackage = lines.find((line) => line.parent === mainRoot!.id && line.node.name === "com.mycompany.app");
+        assert.ok(mainPackage, "The package should be exported below its source root");
+        assert.ok(lines.some((line) => line.parent === mainPackage!.id && line.node.name === "App"),
+            "The type should be exported below its package");
+    });
+
     test("Can apply 'files.exclude'", async function() {
         const explorer = DependencyExplorer.getInstance(contextManager.context);
 